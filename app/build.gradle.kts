@@ -35,10 +35,15 @@ android {
     buildFeatures {
         viewBinding = true
     }
+    androidResources {
+        // The opening book is memory-mapped straight from the APK
+        noCompress += "book"
+    }
 }
 
 dependencies {
 
+    implementation(project(":engine"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.constraintlayout)
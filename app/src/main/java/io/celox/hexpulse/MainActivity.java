@@ -1,6 +1,7 @@
 package io.celox.hexpulse;
 
 import android.os.Bundle;
+import android.util.Log;
 
 import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
@@ -9,6 +10,7 @@ import androidx.navigation.ui.NavigationUI;
 import androidx.appcompat.app.AppCompatActivity;
 
 import io.celox.hexpulse.databinding.ActivityMainBinding;
+import io.celox.hexpulse.game.GameLog;
 
 public class MainActivity extends AppCompatActivity {
 
@@ -19,6 +21,9 @@ public class MainActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
+        // Engine debug logging (when enabled in GameLog) goes to logcat
+        GameLog.setSink(Log::d);
+
         binding = ActivityMainBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
 
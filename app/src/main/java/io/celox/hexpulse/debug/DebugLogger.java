@@ -66,7 +66,8 @@ public class DebugLogger {
      */
     public void logCriticalMove(Map<Hex, Player> beforeState, Map<Hex, Player> afterState, 
                                List<Hex> selectedMarbles, Hex targetPosition, 
-                               Player currentPlayer, String description) {
+                               Player currentPlayer, String beforeCode, String afterCode,
+                               String description) {
         try {
             String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss", Locale.getDefault()).format(new Date());
             String filename = LOG_PREFIX + timestamp + LOG_EXTENSION;
@@ -81,6 +82,8 @@ public class DebugLogger {
             logContent.append("Current Player: ").append(currentPlayer).append("\n");
             logContent.append("Selected Marbles: ").append(selectedMarbles).append("\n");
             logContent.append("Target Position: ").append(targetPosition).append("\n");
+            logContent.append("Position Code Before: ").append(beforeCode).append("\n");
+            logContent.append("Position Code After: ").append(afterCode).append("\n");
             logContent.append("Log File: ").append(logFile.getAbsolutePath()).append("\n");
             logContent.append("\n");
             
@@ -133,7 +136,7 @@ public class DebugLogger {
             for (int q = -4; q <= 4; q++) {
                 int s = -q - r;
                 if (s >= -4 && s <= 4) {
-                    Hex hex = new Hex(q, r);
+                    Hex hex = Hex.of(q, r);
                     Player player = boardState.get(hex);
                     
                     if (player == null) {
@@ -14,6 +14,7 @@ public class GameSettings {
     private static final String KEY_THEME = "theme";
     private static final String KEY_SOUND_ENABLED = "sound_enabled";
     private static final String KEY_DEBUG_MODE = "debug_mode";
+    private static final String KEY_PONDERING = "pondering";
     
     private static GameSettings instance;
     private SharedPreferences preferences;
@@ -74,6 +75,15 @@ public class GameSettings {
     public void setDebugModeEnabled(boolean enabled) {
         preferences.edit().putBoolean(KEY_DEBUG_MODE, enabled).apply();
     }
+
+    // Pondering: the AI keeps thinking during the player's turn
+    public boolean isPonderingEnabled() {
+        return preferences.getBoolean(KEY_PONDERING, true); // Default enabled
+    }
+
+    public void setPonderingEnabled(boolean enabled) {
+        preferences.edit().putBoolean(KEY_PONDERING, enabled).apply();
+    }
     
     // Utility method to get display name for difficulty
     public static String getDifficultyDisplayName(AIDifficulty difficulty) {
@@ -1,5 +1,7 @@
 package io.celox.hexpulse.ui.gallery;
 
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -13,6 +15,8 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -24,7 +28,11 @@ import io.celox.hexpulse.game.AbaloneAI;
 import io.celox.hexpulse.game.AbaloneGame;
 import io.celox.hexpulse.game.Hex;
 import io.celox.hexpulse.game.MoveValidator;
+import io.celox.hexpulse.game.OpeningBook;
 import io.celox.hexpulse.game.Player;
+import io.celox.hexpulse.game.PositionCodec;
+import io.celox.hexpulse.game.SearchHandle;
+import io.celox.hexpulse.game.SearchInfo;
 import io.celox.hexpulse.game.Theme;
 import io.celox.hexpulse.network.GameClient;
 import io.celox.hexpulse.settings.GameSettings;
@@ -43,8 +51,12 @@ public class GalleryFragment extends Fragment implements HexagonalBoardView.Boar
     private AbaloneGame game;
     private AbaloneAI ai;
     private String gameMode = "PVP"; // Default to Player vs Player
+    private static final String OPENING_BOOK_ASSET = "opening.book";
+    private static OpeningBook openingBook; // Mapped once per process and shared by all games
     private boolean isAiThinking = false;
+    private SearchHandle aiSearch = null; // Running AI search, cancelled when the board changes under it
     private Hex pendingMoveTarget = null; // Target position for pending move
+    private String pendingPositionCode = null; // Opponent's position code after the pending move
     private List<Hex> pendingSelectedMarbles = new ArrayList<>(); // Selected marbles for pending move
     
     // Online game variables
@@ -137,6 +149,10 @@ public class GalleryFragment extends Fragment implements HexagonalBoardView.Boar
         if ("AI".equals(gameMode)) {
             AIDifficulty difficulty = settings.getAIDifficulty();
             ai = new AbaloneAI(difficulty);
+            ai.setOpeningBook(loadOpeningBook(requireContext()));
+            if (!settings.isPonderingEnabled()) {
+                ai.setPonderBudget(0, 1);
+            }
         } else {
             ai = null;
         }
@@ -150,6 +166,21 @@ public class GalleryFragment extends Fragment implements HexagonalBoardView.Boar
         binding.hexagonalBoard.setTheme(selectedTheme);
     }
 
+    /**
+     * Map the opening book from the APK; without one the AI simply searches from the first move
+     */
+    private static synchronized OpeningBook loadOpeningBook(Context context) {
+        if (openingBook == null) {
+            try (AssetFileDescriptor descriptor = context.getAssets().openFd(OPENING_BOOK_ASSET);
+                 FileInputStream in = descriptor.createInputStream()) {
+                openingBook = OpeningBook.map(in.getChannel(), descriptor.getStartOffset(), descriptor.getLength());
+            } catch (IOException | IllegalArgumentException e) {
+                android.util.Log.w("GalleryFragment", "Opening book not available", e);
+            }
+        }
+        return openingBook;
+    }
+
     private void setupUI() {
         // Set up button listeners
         binding.btnResetGame.setOnClickListener(v -> resetGame());
@@ -160,6 +191,12 @@ public class GalleryFragment extends Fragment implements HexagonalBoardView.Boar
         });
         binding.btnClearSelection.setOnClickListener(v -> clearSelection());
         binding.btnLogCriticalMove.setOnClickListener(v -> logCriticalMove());
+        // Tapping the thinking indicator makes the AI play its best move so far
+        binding.textAiThinking.setOnClickListener(v -> {
+            if (aiSearch != null) {
+                aiSearch.stop();
+            }
+        });
         
         // Update button states
         updateUndoButton();
@@ -209,14 +246,21 @@ public class GalleryFragment extends Fragment implements HexagonalBoardView.Boar
 
     private void makeAiMove() {
         isAiThinking = true;
+        binding.textAiThinking.setText(R.string.ai_thinking);
         binding.textAiThinking.setVisibility(View.VISIBLE);
+        long searchedPosition = game.positionHash();
 
-        ai.getBestMoveAsync(game, Player.WHITE, new AbaloneAI.MoveCallback() {
+        aiSearch = ai.getBestMoveAsync(game, Player.WHITE, new AbaloneAI.MoveCallback() {
             @Override
             public void onMoveCalculated(AbaloneAI.Move move) {
                 if (getActivity() != null) {
                     getActivity().runOnUiThread(() -> {
+                        // A search cancelled after posting its move must not play it
+                        if (binding == null || !isAiThinking || game.positionHash() != searchedPosition) {
+                            return;
+                        }
                         isAiThinking = false;
+                        aiSearch = null;
                         binding.textAiThinking.setVisibility(View.GONE);
 
                         if (move != null) {
@@ -246,11 +290,26 @@ public class GalleryFragment extends Fragment implements HexagonalBoardView.Boar
                 }
             }
 
+            @Override
+            public void onSearchProgress(SearchInfo info) {
+                if (getActivity() != null) {
+                    getActivity().runOnUiThread(() -> {
+                        if (binding != null && isAiThinking) {
+                            binding.textAiThinking.setText(getString(R.string.ai_thinking_depth, info.getDepth()));
+                        }
+                    });
+                }
+            }
+
             @Override
             public void onMoveError(String error) {
                 if (getActivity() != null) {
                     getActivity().runOnUiThread(() -> {
+                        if (binding == null || !isAiThinking) {
+                            return;
+                        }
                         isAiThinking = false;
+                        aiSearch = null;
                         binding.textAiThinking.setVisibility(View.GONE);
                         Toast.makeText(getContext(), "AI Error: " + error, Toast.LENGTH_SHORT).show();
                     });
@@ -340,8 +399,18 @@ public class GalleryFragment extends Fragment implements HexagonalBoardView.Boar
                 if (isOnlineGame && gameClient != null) {
                     sendMoveToServer(pendingMoveTarget, pendingSelectedMarbles);
                 }
+                if (pendingPositionCode != null && !pendingPositionCode.equals(PositionCodec.toText(game))) {
+                    android.util.Log.w("GalleryFragment", "Position desync after opponent move: expected "
+                        + pendingPositionCode + ", have " + PositionCodec.toText(game));
+                }
+                pendingPositionCode = null;
                 pendingMoveTarget = null;
                 pendingSelectedMarbles.clear();
+                
+                // Keep the AI thinking on the player's time after its own move
+                if (ai != null && game.getCurrentPlayer() == Player.BLACK && game.checkWinner() == null) {
+                    ai.startPondering(game, Player.WHITE);
+                }
                 updateUI();
             } else {
                 Toast.makeText(getContext(), "Move execution failed", Toast.LENGTH_SHORT).show();
@@ -383,6 +452,8 @@ public class GalleryFragment extends Fragment implements HexagonalBoardView.Boar
             }
             moveData.put("selectedMarbles", marblesArray);
             moveData.put("marbleCount", selectedMarbles.size());
+            // Position after the move, so the opponent can detect a desync
+            moveData.put("position", PositionCodec.toText(game));
             
             android.util.Log.d("GalleryFragment", "sendMoveToServer - MOVE DATA: " + moveData);
             android.util.Log.d("GalleryFragment", "sendMoveToServer - Selected marbles: " + selectedMarbles.size());
@@ -398,8 +469,28 @@ public class GalleryFragment extends Fragment implements HexagonalBoardView.Boar
         android.util.Log.d("GalleryFragment", "=== SEND MOVE TO SERVER END ===");
     }
 
+    /**
+     * Abandon a running AI search, e.g. because the position it searches was undone or reset
+     */
+    private void cancelAiSearch() {
+        if (ai != null) {
+            ai.stopPondering();
+        }
+        if (aiSearch != null) {
+            aiSearch.cancel();
+            aiSearch = null;
+        }
+        if (isAiThinking) {
+            isAiThinking = false;
+            if (binding != null) {
+                binding.textAiThinking.setVisibility(View.GONE);
+            }
+        }
+    }
+
     private void resetGame() {
         if (game != null) {
+            cancelAiSearch();
             game.resetGame();
             
             // Hide winner animations
@@ -430,8 +521,8 @@ public class GalleryFragment extends Fragment implements HexagonalBoardView.Boar
 
     private void undoLastMove() {
         if (game != null && game.canUndo()) {
-            // Don't allow undo during AI thinking or animations
-            if (isAiThinking || binding.hexagonalBoard.isAnimating()) {
+            // Don't allow undo during animations
+            if (binding.hexagonalBoard.isAnimating()) {
                 return;
             }
             
@@ -441,6 +532,8 @@ public class GalleryFragment extends Fragment implements HexagonalBoardView.Boar
                 return;
             }
             
+            // The AI may be thinking about the position being undone
+            cancelAiSearch();
             if (game.undoLastMove()) {
                 updateUI();
                 updateUndoButton();
@@ -458,7 +551,7 @@ public class GalleryFragment extends Fragment implements HexagonalBoardView.Boar
     
     private void updateUndoButton() {
         if (game != null && binding != null) {
-            boolean canUndo = game.canUndo() && !isOnlineGame && !isAiThinking;
+            boolean canUndo = game.canUndo() && !isOnlineGame;
             binding.btnUndo.setEnabled(canUndo);
             
             // Update button text to show undo count
@@ -520,6 +613,7 @@ public class GalleryFragment extends Fragment implements HexagonalBoardView.Boar
      * Undo multiple moves
      */
     private void undoMoves(int count) {
+        cancelAiSearch();
         if (game != null && game.undoMoves(count)) {
             updateUI();
             updateUndoButton();
@@ -631,6 +725,8 @@ public class GalleryFragment extends Fragment implements HexagonalBoardView.Boar
                         debugInfo.getSelectedMarbles(),
                         debugInfo.getTargetPosition(),
                         debugInfo.getCurrentPlayer(),
+                        debugInfo.getBeforeCode(),
+                        debugInfo.getAfterCode(),
                         "Critical move logged by user"
                     );
                     
@@ -747,6 +843,7 @@ public class GalleryFragment extends Fragment implements HexagonalBoardView.Boar
         // Parse the move and execute it on our local game
         String targetStr = moveData.getString("target");
         Hex target = Hex.fromString(targetStr);
+        pendingPositionCode = moveData.optString("position", null);
         
         if (target == null) {
             android.util.Log.e("GalleryFragment", "executeOpponentMove - Invalid target: " + targetStr);
@@ -954,11 +1051,21 @@ public class GalleryFragment extends Fragment implements HexagonalBoardView.Boar
         }
     }
 
+    @Override
+    public void onPause() {
+        super.onPause();
+        // Don't ponder in the background; the next AI move searches from scratch
+        if (ai != null) {
+            ai.stopPondering();
+        }
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
         
         // Clean up AI resources
+        cancelAiSearch();
         if (ai != null) {
             ai.shutdown();
         }
@@ -32,6 +32,7 @@ public class SlideshowFragment extends Fragment {
         gameSettings = GameSettings.getInstance(requireContext());
 
         setupAIDifficultySpinner();
+        setupPonderingSwitch();
         setupThemeSpinner();
         setupSoundSwitch();
         setupDebugModeSwitch();
@@ -131,6 +132,19 @@ public class SlideshowFragment extends Fragment {
         });
     }
 
+    private void setupPonderingSwitch() {
+        // Set current state
+        binding.switchPondering.setChecked(gameSettings.isPonderingEnabled());
+
+        // Set up listener
+        binding.switchPondering.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            gameSettings.setPonderingEnabled(isChecked);
+            Toast.makeText(getContext(), 
+                "Pondering " + (isChecked ? "enabled" : "disabled"), 
+                Toast.LENGTH_SHORT).show();
+        });
+    }
+
     private void setupDebugModeSwitch() {
         // Set current state
         binding.switchDebugMode.setChecked(gameSettings.isDebugModeEnabled());
@@ -151,6 +165,7 @@ public class SlideshowFragment extends Fragment {
             gameSettings.setTheme(Theme.CLASSIC);
             gameSettings.setSoundEnabled(true);
             gameSettings.setDebugModeEnabled(false);
+            gameSettings.setPonderingEnabled(true);
 
             // Update UI
             updateUIFromSettings();
@@ -165,6 +180,7 @@ public class SlideshowFragment extends Fragment {
         AIDifficulty currentDifficulty = gameSettings.getAIDifficulty();
         int difficultyPosition = java.util.Arrays.asList(difficulties).indexOf(currentDifficulty);
         binding.spinnerAiDifficulty.setSelection(difficultyPosition);
+        binding.switchPondering.setChecked(gameSettings.isPonderingEnabled());
 
         // Update Theme spinner
         Theme[] themes = Theme.values();
@@ -297,9 +297,9 @@ public class HexagonalBoardView extends View {
         // Draw background
         canvas.drawColor(currentTheme.getBackgroundColor());
         
-        // Draw hexagons
-        for (Hex position : game.getAllPositions()) {
-            drawHexagon(canvas, position);
+        // Draw hexagons, walking the shared cell instances instead of copying the position set
+        for (int i = 0; i < BitBoard.CELL_COUNT; i++) {
+            drawHexagon(canvas, Hex.ofIndex(i));
         }
         
         // Draw movement preview arrows (only if not animating)
@@ -308,7 +308,8 @@ public class HexagonalBoardView extends View {
         }
         
         // Draw marbles (skip animated ones during animation)
-        for (Hex position : game.getAllPositions()) {
+        for (int i = 0; i < BitBoard.CELL_COUNT; i++) {
+            Hex position = Hex.ofIndex(i);
             Player player = game.getPlayerAt(position);
             if (player.isPlayer() && !isMarbleBeingAnimated(position)) {
                 drawMarble(canvas, position, player);
@@ -1186,7 +1187,7 @@ public class HexagonalBoardView extends View {
         // Check all valid board positions
         for (int q = -4; q <= 4; q++) {
             for (int r = Math.max(-4, -q - 4); r <= Math.min(4, -q + 4); r++) {
-                Hex hex = new Hex(q, r);
+                Hex hex = Hex.of(q, r);
                 
                 if (game.isValidPosition(hex)) {
                     float[] hexCenter = hex.toPixel(centerX, centerY, HEX_SIZE);
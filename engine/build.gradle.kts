@@ -0,0 +1,54 @@
+// Game rules and AI as a plain JVM library, so they can be tested, benchmarked
+// and profiled without an Android device
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
+
+// ./gradlew :engine:jmh writes ops/s and the GC profiler's allocation per op
+// to build/results/jmh/results.json
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
+
+// ./gradlew :engine:perft -Pargs="4 belgian --generator" prints the divide and nodes/s
+tasks.register<JavaExec>("perft") {
+    group = "verification"
+    description = "Counts legal move sequences to a fixed depth"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("io.celox.hexpulse.game.Perft")
+    args = (findProperty("args") as String? ?: "3").split(" ")
+}
+
+// ./gradlew :engine:openingBook -Pargs="200 10 7" rebuilds the app's opening book by self-play
+tasks.register<JavaExec>("openingBook") {
+    group = "build"
+    description = "Builds the opening book asset by self-play"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("io.celox.hexpulse.game.OpeningBookBuilder")
+    args = listOf(rootProject.file("app/src/main/assets/opening.book").path) +
+        (findProperty("args") as String? ?: "").split(" ").filter { it.isNotEmpty() }
+}
+
+// ./gradlew :engine:match -Pargs="hard hard+fullwidth 10" plays two AI settings against each other
+tasks.register<JavaExec>("match") {
+    group = "verification"
+    description = "Plays a self-play match between two AI settings"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("io.celox.hexpulse.game.SelfPlayMatch")
+    args = (findProperty("args") as String? ?: "hard hard+fullwidth").split(" ")
+}
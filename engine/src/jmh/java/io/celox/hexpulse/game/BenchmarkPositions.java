@@ -0,0 +1,103 @@
+package io.celox.hexpulse.game;
+
+import java.util.Random;
+
+/**
+ * Corpus of benchmark positions, built by seeded playouts from the start
+ * position so every run measures exactly the same boards.
+ *
+ * Playouts favour pushes so the later phases have contact and lost marbles,
+ * and every position is one where the side to move has a push available.
+ */
+public final class BenchmarkPositions {
+    public enum Phase {
+        /** A few moves in, armies still apart */
+        OPENING(4, 0, 11),
+        /** Armies in contact, one or two marbles lost */
+        MIDDLEGAME(30, 2, 23),
+        /** Both sides down to few marbles, close to the decisive sixth */
+        ENDGAME(60, 7, 37);
+        
+        final int minPlies;
+        final int minLost;
+        final long seed;
+        
+        Phase(int minPlies, int minLost, long seed) {
+            this.minPlies = minPlies;
+            this.minLost = minLost;
+            this.seed = seed;
+        }
+    }
+    
+    private static final int MAX_PLIES = 1000;
+    private static final int WIN_MARGIN = 5;
+    
+    private BenchmarkPositions() {
+    }
+    
+    static AbaloneGame position(Phase phase) {
+        Random random = new Random(phase.seed);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        AbaloneGame game = new AbaloneGame();
+        BitBoard board = game.board();
+        
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            Player side = game.getCurrentPlayer();
+            int count = MoveGenerator.generate(board, side, moves);
+            int lost = board.getScore(Player.BLACK) + board.getScore(Player.WHITE);
+            if (ply >= phase.minPlies && lost >= phase.minLost && findPush(moves, count, false) >= 0) {
+                break;
+            }
+            
+            // Eject while neither side is about to win, otherwise push or move at random
+            int move = -1;
+            if (lost < phase.minLost && board.getScore(side) < WIN_MARGIN - 1) {
+                move = findPush(moves, count, true);
+            }
+            if (move < 0 && random.nextInt(3) == 0) {
+                move = findPush(moves, count, false);
+            }
+            if (move < 0) {
+                move = nonEjecting(moves, count, random);
+            }
+            game.make(moves[move]);
+        }
+        game.clearSelection();
+        return game;
+    }
+    
+    /**
+     * Index of the first push (optionally only ejecting ones), or -1
+     */
+    static int findPush(int[] moves, int count, boolean ejectsOnly) {
+        for (int i = 0; i < count; i++) {
+            if (PackedMove.isPush(moves[i]) && (!ejectsOnly || PackedMove.ejects(moves[i]))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Index of the first non-pushing move, or -1
+     */
+    static int findQuiet(int[] moves, int count) {
+        for (int i = 0; i < count; i++) {
+            if (!PackedMove.isPush(moves[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static int nonEjecting(int[] moves, int count, Random random) {
+        int start = random.nextInt(count);
+        for (int i = 0; i < count; i++) {
+            int index = (start + i) % count;
+            if (!PackedMove.ejects(moves[index])) {
+                return index;
+            }
+        }
+        return start;
+    }
+}
@@ -0,0 +1,62 @@
+package io.celox.hexpulse.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-node cost of what the AI does for every search node, copy the position
+ * and read back every cell: on the bitboard versus the HashMap board it replaced
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BitBoardBenchmark {
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions.Phase phase;
+    
+    private BitBoard board;
+    private Map<Hex, Player> legacyBoard;
+    
+    @Setup
+    public void setUp() {
+        board = new BitBoard(BenchmarkPositions.position(phase).board());
+        legacyBoard = new HashMap<>();
+        for (Hex pos : BitBoard.cells()) {
+            legacyBoard.put(Hex.of(pos.q, pos.r), board.get(pos));
+        }
+    }
+    
+    @Benchmark
+    public int bitBoardNode() {
+        BitBoard copy = new BitBoard(board);
+        int marbles = 0;
+        for (int i = 0; i < BitBoard.CELL_COUNT; i++) {
+            if (copy.get(i) != Player.EMPTY) {
+                marbles++;
+            }
+        }
+        return marbles;
+    }
+    
+    @Benchmark
+    public int hashMapNode() {
+        Map<Hex, Player> copy = new HashMap<>(legacyBoard);
+        int marbles = 0;
+        for (Hex pos : copy.keySet()) {
+            if (copy.getOrDefault(pos, Player.EMPTY) != Player.EMPTY) {
+                marbles++;
+            }
+        }
+        return marbles;
+    }
+}
@@ -0,0 +1,49 @@
+package io.celox.hexpulse.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Static evaluation of a position per difficulty, as called at every search leaf
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EvaluationBenchmark {
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions.Phase phase;
+    
+    @Param({"MEDIUM", "HARD"})
+    public AIDifficulty difficulty;
+    
+    private AbaloneAI ai;
+    private AbaloneAI.SearchContext ctx;
+    private Player side;
+    
+    @Setup
+    public void setUp() {
+        AbaloneGame game = BenchmarkPositions.position(phase);
+        ai = new AbaloneAI(difficulty, 1);
+        ctx = new AbaloneAI.SearchContext(game);
+        side = game.getCurrentPlayer();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        ai.shutdown();
+    }
+    
+    @Benchmark
+    public int evaluatePosition() {
+        return ai.evaluatePosition(ctx, side);
+    }
+}
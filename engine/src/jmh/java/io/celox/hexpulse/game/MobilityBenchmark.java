@@ -0,0 +1,66 @@
+package io.celox.hexpulse.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mobility and ejection-threat terms for both sides: counted from line
+ * tables versus generating every move, as the evaluation used to
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MobilityBenchmark {
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions.Phase phase;
+    
+    private BitBoard board;
+    private Player side;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    
+    @Setup
+    public void setUp() {
+        AbaloneGame game = BenchmarkPositions.position(phase);
+        board = new BitBoard(game.board());
+        side = game.getCurrentPlayer();
+    }
+    
+    @Benchmark
+    public int tableMobility() {
+        return Mobility.count(board, side) - Mobility.count(board, side.getOpponent());
+    }
+    
+    @Benchmark
+    public int generatedMobility() {
+        return MoveGenerator.generate(board, side, moves) - MoveGenerator.generate(board, side.getOpponent(), moves);
+    }
+    
+    @Benchmark
+    public int tableThreats() {
+        return Mobility.ejectionThreats(board, side) - Mobility.ejectionThreats(board, side.getOpponent());
+    }
+    
+    @Benchmark
+    public int generatedThreats() {
+        return ejections(side) - ejections(side.getOpponent());
+    }
+    
+    private int ejections(Player player) {
+        int count = MoveGenerator.generate(board, player, moves);
+        int ejections = 0;
+        for (int i = 0; i < count; i++) {
+            if (PackedMove.ejects(moves[i])) {
+                ejections++;
+            }
+        }
+        return ejections;
+    }
+}
@@ -0,0 +1,120 @@
+package io.celox.hexpulse.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executing push and non-push moves, both as validated moves and as packed
+ * ints. Each operation plays the move and takes it back so the position
+ * stays the same across iterations.
+ *
+ * The children benchmarks visit every legal move of the position, as a
+ * fresh game copy replayed through selectMarble/makeMove versus make/unmake
+ * on one game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MoveExecutorBenchmark {
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions.Phase phase;
+    
+    private BitBoard board;
+    private MoveExecutor executor;
+    private Player side;
+    private int packedPush;
+    private int packedQuiet;
+    private MoveValidator.ValidatedMove validatedPush;
+    private MoveValidator.ValidatedMove validatedQuiet;
+    private AbaloneGame game;
+    private List<MoveValidator.ValidatedMove> children;
+    
+    @Setup
+    public void setUp() {
+        game = BenchmarkPositions.position(phase);
+        children = Perft.legalMoves(game);
+        board = new BitBoard(game.board());
+        executor = new MoveExecutor(board);
+        side = game.getCurrentPlayer();
+        
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generate(board, side, moves);
+        packedPush = moves[BenchmarkPositions.findPush(moves, count, false)];
+        packedQuiet = moves[BenchmarkPositions.findQuiet(moves, count)];
+        validatedPush = validated(packedPush);
+        validatedQuiet = validated(packedQuiet);
+    }
+    
+    private MoveValidator.ValidatedMove validated(int move) {
+        for (MoveValidator.ValidatedMove candidate
+                : new MoveValidator(board, side).getValidMoves(PackedMove.marbles(move))) {
+            if (candidate.direction == PackedMove.direction(move)) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("Validator rejects generated move in " + phase);
+    }
+    
+    @Benchmark
+    public long validatedPush() {
+        executor.executeMove(validatedPush, side);
+        executor.undoMove(validatedPush, side);
+        return board.hash();
+    }
+    
+    @Benchmark
+    public long validatedQuiet() {
+        executor.executeMove(validatedQuiet, side);
+        executor.undoMove(validatedQuiet, side);
+        return board.hash();
+    }
+    
+    @Benchmark
+    public long packedPush() {
+        executor.executeMove(packedPush, side);
+        executor.undoMove(packedPush, side);
+        return board.hash();
+    }
+    
+    @Benchmark
+    public long packedQuiet() {
+        executor.executeMove(packedQuiet, side);
+        executor.undoMove(packedQuiet, side);
+        return board.hash();
+    }
+    
+    @Benchmark
+    public long copyChildren() {
+        long sink = 0;
+        for (MoveValidator.ValidatedMove move : children) {
+            AbaloneGame child = new AbaloneGame(game);
+            child.clearSelection();
+            for (Hex marble : move.marbles) {
+                child.selectMarble(marble);
+            }
+            child.makeMove(move.targetPosition);
+            sink += child.board().occupied();
+        }
+        return sink;
+    }
+    
+    @Benchmark
+    public long makeUnmakeChildren() {
+        long sink = 0;
+        for (MoveValidator.ValidatedMove move : children) {
+            game.make(move);
+            sink += game.board().occupied();
+            game.unmake(move);
+        }
+        return sink;
+    }
+}
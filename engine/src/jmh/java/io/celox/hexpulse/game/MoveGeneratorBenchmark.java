@@ -0,0 +1,39 @@
+package io.celox.hexpulse.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full legal move generation for the side to move
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MoveGeneratorBenchmark {
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions.Phase phase;
+    
+    private BitBoard board;
+    private Player side;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    
+    @Setup
+    public void setUp() {
+        AbaloneGame game = BenchmarkPositions.position(phase);
+        board = new BitBoard(game.board());
+        side = game.getCurrentPlayer();
+    }
+    
+    @Benchmark
+    public int generate() {
+        return MoveGenerator.generate(board, side, moves);
+    }
+}
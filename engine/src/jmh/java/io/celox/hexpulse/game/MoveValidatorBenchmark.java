@@ -0,0 +1,67 @@
+package io.celox.hexpulse.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of 1-, 2- and 3-marble selections, the way the UI and the
+ * validator-based move enumeration call it
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MoveValidatorBenchmark {
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions.Phase phase;
+    
+    private BitBoard board;
+    private Player side;
+    private List<Hex> single;
+    private List<Hex> pair;
+    private List<Hex> triple;
+    
+    @Setup
+    public void setUp() {
+        AbaloneGame game = BenchmarkPositions.position(phase);
+        board = new BitBoard(game.board());
+        side = game.getCurrentPlayer();
+        single = selection(1);
+        pair = selection(2);
+        triple = selection(3);
+    }
+    
+    private List<Hex> selection(int length) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generate(board, side, moves);
+        for (int i = 0; i < count; i++) {
+            if (PackedMove.length(moves[i]) == length) {
+                return PackedMove.marbles(moves[i]);
+            }
+        }
+        throw new IllegalStateException("No " + length + "-marble line in " + phase);
+    }
+    
+    @Benchmark
+    public List<MoveValidator.ValidatedMove> singleMarble() {
+        return new MoveValidator(board, side).getValidMoves(single);
+    }
+    
+    @Benchmark
+    public List<MoveValidator.ValidatedMove> twoMarbles() {
+        return new MoveValidator(board, side).getValidMoves(pair);
+    }
+    
+    @Benchmark
+    public List<MoveValidator.ValidatedMove> threeMarbles() {
+        return new MoveValidator(board, side).getValidMoves(triple);
+    }
+}
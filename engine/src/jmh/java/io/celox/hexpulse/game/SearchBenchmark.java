@@ -0,0 +1,62 @@
+package io.celox.hexpulse.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HARD search to a fixed depth, single-threaded and as a Lazy SMP search,
+ * whose time to depth shows the gain of the helper threads on this machine.
+ * The transposition table is cleared and the context renewed before every
+ * search so iterations do not feed each other.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SearchBenchmark {
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions.Phase phase;
+    
+    @Param({"2", "3"})
+    public int depth;
+    
+    @Param({"1", "4"})
+    public int threads;
+    
+    private AbaloneAI ai;
+    private AbaloneGame game;
+    private AbaloneAI.SearchContext ctx;
+    private Player side;
+    
+    @Setup
+    public void setUp() {
+        game = BenchmarkPositions.position(phase);
+        ai = new AbaloneAI(AIDifficulty.HARD, threads);
+        side = game.getCurrentPlayer();
+    }
+    
+    @Setup(Level.Invocation)
+    public void newSearch() {
+        ai.getTranspositionTable().clear();
+        ctx = new AbaloneAI.SearchContext(game);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        ai.shutdown();
+    }
+    
+    @Benchmark
+    public int fixedDepthSearch() {
+        return ai.searchFixedDepth(ctx, side, depth, threads);
+    }
+}
@@ -0,0 +1,175 @@
+package io.celox.hexpulse.game;
+
+/**
+ * Represents different AI difficulty levels
+ */
+public enum AIDifficulty {
+    EASY(1, "Easy"),
+    MEDIUM(2, "Medium"), 
+    HARD(3, "Hard");
+    
+    private final int level;
+    private final String displayName;
+    
+    AIDifficulty(int level, String displayName) {
+        this.level = level;
+        this.displayName = displayName;
+    }
+    
+    public int getLevel() {
+        return level;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    /**
+     * Get search depth for minimax based on difficulty
+     */
+    public int getSearchDepth() {
+        switch (this) {
+            case EASY:
+                return 3;   // Strategic depth for competent play
+            case MEDIUM:
+                return 4;   // Quiescence search settles the tactics beyond this
+            case HARD:
+                return 7;   // Deep strategic planning
+            default:
+                return 4;
+        }
+    }
+    
+    /**
+     * Get maximum moves scored by the quick evaluation; minimax searches all
+     * moves and relies on pruning and reductions instead
+     */
+    public int getMaxMovesToEvaluate() {
+        switch (this) {
+            case EASY:
+                return 15;   // Solid move evaluation
+            case MEDIUM:
+                return 25;   // Comprehensive search
+            case HARD:
+                return 40;   // Exhaustive analysis
+            default:
+                return 20;
+        }
+    }
+    
+    /**
+     * Get randomness factor for move selection
+     */
+    public double getRandomnessFactor() {
+        switch (this) {
+            case EASY:
+                return 0.08;  // 8% random moves for some unpredictability
+            case MEDIUM:
+                return 0.02;  // 2% random moves to avoid perfect play  
+            case HARD:
+                return 0.0;   // No random moves - pure strategic play
+            default:
+                return 0.05;
+        }
+    }
+    
+    /**
+     * Get evaluation complexity factor
+     */
+    public boolean useAdvancedEvaluation() {
+        return this == MEDIUM || this == HARD;
+    }
+    
+    /**
+     * Whether minimax uses null-move pruning and late move reductions. Only
+     * worth it where the time budget, not the depth cap, limits the search.
+     */
+    public boolean useSelectiveSearch() {
+        return this == HARD;
+    }
+    
+    /**
+     * Whether searches go to the Monte Carlo tree search instead of minimax.
+     * Matched at the same time budget, minimax wins clearly, so no level does.
+     */
+    public boolean useMonteCarlo() {
+        return false;
+    }
+    
+    /**
+     * Get number of parallel search threads, capped by the available cores
+     */
+    public int getSearchThreads() {
+        int threads;
+        switch (this) {
+            case EASY:
+                threads = 1;   // Quick evaluation runs on one thread
+                break;
+            case MEDIUM:
+                threads = 2;   // Light parallel search
+                break;
+            case HARD:
+                threads = 4;   // Use the big cores of modern phones
+                break;
+            default:
+                threads = 1;
+        }
+        return Math.max(1, Math.min(threads, Runtime.getRuntime().availableProcessors()));
+    }
+    
+    /**
+     * Get transposition table size in megabytes
+     */
+    public int getTranspositionTableMb() {
+        switch (this) {
+            case EASY:
+                return 1;    // Quick evaluation barely searches
+            case MEDIUM:
+                return 4;    // Fits comfortably on 2 GB devices
+            case HARD:
+                return 16;   // Deeper search benefits from more entries
+            default:
+                return 4;
+        }
+    }
+    
+    /**
+     * Whether the AI plays book moves in the opening; EASY stays beatable without one
+     */
+    public boolean useOpeningBook() {
+        return this != EASY;
+    }
+    
+    /**
+     * Get the longest the AI keeps searching on the opponent's time after
+     * moving (milliseconds), 0 for no pondering
+     */
+    public long getPonderTimeLimit() {
+        switch (this) {
+            case EASY:
+                return 0;       // No search tree to keep warm
+            case MEDIUM:
+                return 15000;
+            case HARD:
+                return 30000;
+            default:
+                return 0;
+        }
+    }
+    
+    /**
+     * Get time limit for move calculation (milliseconds)
+     */
+    public long getTimeLimit() {
+        switch (this) {
+            case EASY:
+                return 800;    // Fast response
+            case MEDIUM:
+                return 1500;   // Quick but thorough
+            case HARD:
+                return 2500;   // Deep analysis but responsive
+            default:
+                return 1200;
+        }
+    }
+}
\ No newline at end of file
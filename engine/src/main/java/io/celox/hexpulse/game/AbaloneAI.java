@@ -0,0 +1,1365 @@
+package io.celox.hexpulse.game;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AI opponent for Abalone game with different difficulty levels
+ */
+public class AbaloneAI {
+    private static final String TAG = "AbaloneAI";
+    static final int MAX_PLY = 32;
+    private static final int INFINITY = 1_000_000;
+    private static final int WIN_SCORE = 10000;
+    /** Plies of pushes the quiescence search may add beyond the nominal depth */
+    private static final int MAX_QUIESCENCE_PLY = 6;
+    /** Evaluation gained by an ejection: score difference and marble count terms */
+    private static final int EJECTION_VALUE = 2000 + 30;
+    /** Most a non-ejecting push is assumed to change the evaluation */
+    private static final int DELTA_MARGIN = 200;
+    /** Ordering scores of the move stages below the PV and table moves */
+    private static final int EJECTION_ORDER = 3_000_000;
+    private static final int PUSH_ORDER = 2_000_000;
+    private static final int KILLER_ORDER = 1_500_000;
+    private static final int COUNTER_ORDER = 1_400_000;
+    /** History scores are halved once one reaches this, keeping quiet moves below the killers */
+    private static final int HISTORY_LIMIT = 1 << 14;
+    /** Shallowest remaining depth at which a null move is tried */
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    /** Below this many marbles of the side to move, passing is not assumed to be safe */
+    private static final int NULL_MOVE_MIN_MARBLES = 10;
+    /** Late move reductions start at this remaining depth, after this many moves at full depth */
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_FULL_MOVES = 3;
+    /** Half-width of the first aspiration window around the previous iteration's score */
+    private static final int ASPIRATION_WINDOW = 400;
+    /**
+     * Mixed into table keys when the AI plays BLACK: evaluation is from the AI
+     * side's view, so searches for either side keep separate entries
+     */
+    private static final long BLACK_SEARCH_KEY = 0x9E3779B97F4A7C15L;
+    
+    private AIDifficulty difficulty;
+    private final TranspositionTable table;
+    private final int searchThreads;
+    private ExecutorService executor;
+    private final ExecutorService helperPool;
+    private long lastSearchNodes;
+    private int lastSearchDepth;
+    private volatile List<Move> lastPrincipalVariation = Collections.emptyList();
+    private volatile boolean selectiveSearch;
+    private volatile boolean monteCarlo;
+    /** Tree search backend, with its node pool allocated on first use */
+    private MonteCarloSearch monteCarloSearch;
+    private volatile SearchHandle activeSearch;
+    private volatile long ponderTimeLimit;
+    private volatile int ponderThreads = 1;
+    /** Search running on the opponent's time, until the next move request takes it over or drops it */
+    private volatile Ponder ponder;
+    private ScheduledExecutorService ponderClock;
+    private volatile OpeningBook openingBook;
+    private final Random bookRandom = new Random();
+    
+    /**
+     * Represents a move (selected marbles + target position)
+     */
+    public static class Move {
+        public final List<Hex> selectedMarbles;
+        public final Hex target;
+        final int packed;
+        
+        public Move(List<Hex> selectedMarbles, Hex target) {
+            this.selectedMarbles = new ArrayList<>(selectedMarbles);
+            this.target = target;
+            this.packed = PackedMove.NONE;
+        }
+        
+        Move(int packed) {
+            this.selectedMarbles = PackedMove.marbles(packed);
+            this.target = PackedMove.target(packed);
+            this.packed = packed;
+        }
+        
+        @Override
+        public String toString() {
+            return selectedMarbles + "->" + target;
+        }
+    }
+    
+    /**
+     * Scratch state for one search: the private position played with make/unmake,
+     * plus preallocated move and score buffers per ply so search does not allocate
+     */
+    static class SearchContext {
+        final AbaloneGame position;
+        final int[][] moves = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+        final int[][] scores = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+        final AtomicBoolean stop;
+        /** Handle of an asynchronous search, told about each completed iteration; null otherwise */
+        SearchHandle handle;
+        long keySalt;
+        boolean timeUp;
+        long nodes;
+        /** Nodes after which the search stops as if its time were up, so a cut-off search can be replayed */
+        long maxNodes = Long.MAX_VALUE;
+        int bestMove = PackedMove.NONE;
+        int bestScore;
+        int completedDepth;
+        
+        /** Triangular principal variation table: pv[ply] is the best line from ply on */
+        final int[][] pv = new int[MAX_PLY][MAX_PLY];
+        final int[] pvLength = new int[MAX_PLY];
+        /** Principal variation of the last completed iteration, searched first by the next */
+        final int[] previousPv = new int[MAX_PLY];
+        int previousPvLength;
+        boolean followPv;
+        
+        /** Move played at each ply of the current line, for counter-moves */
+        final int[] played = new int[MAX_PLY];
+        /** Two quiet moves per ply that last caused a cutoff there */
+        final int[][] killers = new int[MAX_PLY][2];
+        /** Cutoff history per side and move shape */
+        final int[] history = new int[2 * PackedMove.SHAPES];
+        /** Quiet reply that refuted each move shape, per side of the refuted move */
+        final int[] counterMoves = new int[2 * PackedMove.SHAPES];
+        
+        SearchContext(AbaloneGame game) {
+            this(game, new AtomicBoolean());
+        }
+        
+        /**
+         * Context sharing a stop signal, for helper threads of a parallel search
+         * and for searches that can be stopped from outside
+         */
+        SearchContext(AbaloneGame game, AtomicBoolean stop) {
+            position = new AbaloneGame(game);
+            position.clearSelection();
+            this.stop = stop;
+        }
+    }
+    
+    /**
+     * A search of the AI's answer to the opponent's expected reply. It keeps
+     * what the search delivers until a move request for that position takes
+     * it over, and forwards everything after that.
+     */
+    private static final class Ponder implements MoveCallback {
+        final Player player;
+        final long positionHash;
+        final long startTime = System.currentTimeMillis();
+        SearchHandle handle;
+        private MoveCallback target;
+        private boolean finished;
+        private Move result;
+        private String error;
+        
+        Ponder(Player player, long positionHash) {
+            this.player = player;
+            this.positionHash = positionHash;
+        }
+        
+        /**
+         * Forward further results to a callback
+         *
+         * @return true if the search has already finished, so its result must be delivered by the caller
+         */
+        synchronized boolean attach(MoveCallback callback) {
+            target = callback;
+            return finished;
+        }
+        
+        synchronized void deliverTo(SearchHandle to) {
+            if (error != null) {
+                to.fail(error);
+            } else {
+                to.deliver(result);
+            }
+        }
+        
+        @Override
+        public void onMoveCalculated(Move move) {
+            MoveCallback forward;
+            synchronized (this) {
+                finished = true;
+                result = move;
+                forward = target;
+            }
+            if (forward != null) {
+                forward.onMoveCalculated(move);
+            }
+        }
+        
+        @Override
+        public void onMoveError(String error) {
+            MoveCallback forward;
+            synchronized (this) {
+                finished = true;
+                this.error = error;
+                forward = target;
+            }
+            if (forward != null) {
+                forward.onMoveError(error);
+            }
+        }
+        
+        @Override
+        public void onSearchProgress(SearchInfo info) {
+            MoveCallback forward;
+            synchronized (this) {
+                forward = target;
+            }
+            if (forward != null) {
+                forward.onSearchProgress(info);
+            }
+        }
+    }
+    
+    /**
+     * Interface for AI move completion callback
+     */
+    public interface MoveCallback {
+        void onMoveCalculated(Move move);
+        void onMoveError(String error);
+        
+        /**
+         * Called on the search thread after each completed iteration of a minimax search
+         */
+        default void onSearchProgress(SearchInfo info) {
+        }
+    }
+    
+    public AbaloneAI(AIDifficulty difficulty) {
+        this(difficulty, difficulty.getSearchThreads());
+    }
+    
+    /**
+     * Create an AI with an explicit number of search threads, e.g. to compare
+     * parallel and single-threaded search at the same time budget
+     */
+    public AbaloneAI(AIDifficulty difficulty, int searchThreads) {
+        this.difficulty = difficulty;
+        this.table = new TranspositionTable(difficulty.getTranspositionTableMb());
+        this.searchThreads = Math.max(1, searchThreads);
+        this.selectiveSearch = difficulty.useSelectiveSearch();
+        this.monteCarlo = difficulty.useMonteCarlo();
+        this.ponderTimeLimit = difficulty.getPonderTimeLimit();
+        this.executor = Executors.newSingleThreadExecutor();
+        this.helperPool = this.searchThreads > 1
+            ? Executors.newFixedThreadPool(this.searchThreads - 1, runnable -> {
+                Thread thread = new Thread(runnable, "AbaloneAI-helper");
+                thread.setDaemon(true);
+                return thread;
+            })
+            : null;
+    }
+    
+    /**
+     * Get best move asynchronously. The position is copied before this
+     * returns, so the caller may change the game while the search runs.
+     *
+     * If the AI has been pondering this position, the ponder search is taken
+     * over and only gets the part of the time limit it has not used yet;
+     * otherwise it is cancelled and a new search starts.
+     *
+     * @return handle to follow, stop or cancel the search
+     */
+    public SearchHandle getBestMoveAsync(AbaloneGame game, Player player, MoveCallback callback) {
+        Ponder pondered = ponder;
+        ponder = null;
+        if (pondered != null) {
+            if (pondered.player == player && game.getCurrentPlayer() == player
+                    && pondered.positionHash == game.positionHash()) {
+                return ponderHit(pondered, callback);
+            }
+            pondered.handle.cancel();
+        }
+        
+        SearchHandle handle = new SearchHandle(callback);
+        AbaloneGame position = new AbaloneGame(game);
+        activeSearch = handle;
+        handle.setTask(executor.submit(() -> {
+            try {
+                if (!handle.isCancelled()) {
+                    SearchContext ctx = new SearchContext(position, handle.stopSignal());
+                    ctx.handle = handle;
+                    handle.deliver(search(ctx, player, difficulty.getTimeLimit(), searchThreads));
+                }
+            } catch (Exception e) {
+                handle.fail("AI calculation error: " + e.getMessage());
+            } finally {
+                handle.finish();
+            }
+        }));
+        return handle;
+    }
+    
+    /**
+     * Start pondering after the AI has moved: play the opponent's reply that
+     * the last search expects and search the AI's answer to it, on the
+     * opponent's time and within the ponder budget. The table stays warm
+     * for the real search even when the opponent plays something else.
+     * Does nothing without an expected reply or with pondering disabled.
+     *
+     * @param game position after the AI's move, with the opponent to move
+     * @param player the side the AI plays
+     */
+    public void startPondering(AbaloneGame game, Player player) {
+        stopPondering();
+        long budget = ponderTimeLimit;
+        int reply = expectedReply(game, player);
+        if (budget <= 0 || reply == PackedMove.NONE) {
+            return;
+        }
+        
+        AbaloneGame position = new AbaloneGame(game);
+        position.clearSelection();
+        position.make(reply);
+        Ponder next = new Ponder(player, position.positionHash());
+        SearchHandle handle = new SearchHandle(next);
+        next.handle = handle;
+        int threads = Math.min(ponderThreads, searchThreads);
+        ponder = next;
+        handle.setTask(executor.submit(() -> {
+            try {
+                if (!handle.isCancelled()) {
+                    SearchContext ctx = new SearchContext(position, handle.stopSignal());
+                    ctx.handle = handle;
+                    handle.deliver(search(ctx, player, budget, threads));
+                }
+            } catch (Exception e) {
+                handle.fail("AI calculation error: " + e.getMessage());
+            } finally {
+                handle.finish();
+            }
+        }));
+    }
+    
+    /**
+     * Drop the ponder search, e.g. because the game was undone or reset
+     */
+    public void stopPondering() {
+        Ponder pondered = ponder;
+        ponder = null;
+        if (pondered != null) {
+            pondered.handle.cancel();
+        }
+    }
+    
+    /**
+     * Whether a ponder search is still running
+     */
+    public boolean isPondering() {
+        Ponder pondered = ponder;
+        return pondered != null && !pondered.handle.isDone();
+    }
+    
+    /**
+     * Cap the CPU spent pondering: the longest a ponder search may run, 0 to
+     * disable pondering, and how many of the search threads it may use
+     */
+    public void setPonderBudget(long timeLimitMillis, int threads) {
+        this.ponderTimeLimit = Math.max(0, timeLimitMillis);
+        this.ponderThreads = Math.max(1, threads);
+    }
+    
+    /**
+     * Take over a ponder search of the requested position. One that already
+     * finished answers at once; a running one is stopped when the normal
+     * time limit, counted from the start of pondering, runs out.
+     */
+    private SearchHandle ponderHit(Ponder pondered, MoveCallback callback) {
+        if (pondered.attach(callback)) {
+            SearchHandle handle = new SearchHandle(callback);
+            activeSearch = handle;
+            handle.setTask(executor.submit(() -> {
+                try {
+                    pondered.deliverTo(handle);
+                } finally {
+                    handle.finish();
+                }
+            }));
+            return handle;
+        }
+        
+        SearchHandle handle = pondered.handle;
+        activeSearch = handle;
+        long remaining = difficulty.getTimeLimit() - (System.currentTimeMillis() - pondered.startTime);
+        if (remaining <= 0) {
+            handle.stop();
+        } else {
+            if (ponderClock == null) {
+                ponderClock = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "AbaloneAI-ponder");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            ponderClock.schedule(handle::stop, remaining, TimeUnit.MILLISECONDS);
+        }
+        return handle;
+    }
+    
+    /**
+     * The opponent's reply in the last search's principal variation, if it is legal in the game
+     */
+    private int expectedReply(AbaloneGame game, Player player) {
+        List<Move> pv = lastPrincipalVariation;
+        if (pv.size() < 2 || game.getCurrentPlayer() != player.getOpponent() || game.checkWinner() != null) {
+            return PackedMove.NONE;
+        }
+        int reply = pv.get(1).packed;
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = generateAllMoves(game, game.getCurrentPlayer(), moves);
+        return contains(moves, count, reply) ? reply : PackedMove.NONE;
+    }
+    
+    /**
+     * Get best move synchronously (for testing/debugging)
+     */
+    public Move getBestMove(AbaloneGame game, Player player) {
+        // Private search position, played forward and back with make/unmake
+        return search(new SearchContext(game), player, difficulty.getTimeLimit(), searchThreads);
+    }
+    
+    private Move search(SearchContext ctx, Player player, long timeLimit, int threads) {
+        int[] allMoves = ctx.moves[0];
+        int moveCount = generateAllMoves(ctx.position, player, allMoves);
+        
+        if (moveCount == 0) {
+            return null;
+        }
+        
+        // In the book there is nothing to search
+        int bookMove = probeBook(ctx, player, moveCount);
+        if (bookMove != PackedMove.NONE) {
+            return new Move(bookMove);
+        }
+        
+        int bestPacked;
+        
+        // Apply randomness based on difficulty
+        if (Math.random() < difficulty.getRandomnessFactor()) {
+            // Occasionally make a random move (more for EASY, less for MEDIUM, never for HARD)
+            bestPacked = allMoves[new Random().nextInt(moveCount)];
+        } else {
+            // Use enhanced evaluation based on difficulty
+            if (difficulty == AIDifficulty.EASY) {
+                bestPacked = enhancedQuickEvaluate(ctx, moveCount, player);
+            } else {
+                SearchEngine engine = monteCarlo ? monteCarloSearch() : this::minimaxEvaluateWithTimeLimit;
+                bestPacked = engine.search(ctx, moveCount, player, timeLimit, threads);
+                lastSearchNodes = ctx.nodes;
+                lastSearchDepth = ctx.completedDepth;
+                List<Move> pv = new ArrayList<>();
+                for (int i = 0; i < ctx.previousPvLength; i++) {
+                    pv.add(new Move(ctx.previousPv[i]));
+                }
+                lastPrincipalVariation = pv;
+                if (GameLog.DEBUG) {
+                    GameLog.d(TAG, "Depth " + ctx.completedDepth + " score " + ctx.bestScore
+                        + " nodes " + ctx.nodes + " pv " + pv);
+                }
+            }
+        }
+        return new Move(bestPacked);
+    }
+    
+    /**
+     * The Monte Carlo backend, with a node pool the size of the transposition table's memory budget
+     */
+    private synchronized MonteCarloSearch monteCarloSearch() {
+        if (monteCarloSearch == null) {
+            long bytes = (long) difficulty.getTranspositionTableMb() * 1024 * 1024;
+            monteCarloSearch = new MonteCarloSearch(this, helperPool, (int) (bytes / MonteCarloSearch.NODE_BYTES));
+        }
+        return monteCarloSearch;
+    }
+    
+    /**
+     * Play book moves while the game is in this book; null for none.
+     * EASY never uses a book.
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.openingBook = book;
+    }
+    
+    /**
+     * A legal book move for the search position, or {@link PackedMove#NONE}.
+     * A book hit leaves the book's reply as the expected line, for pondering.
+     */
+    private int probeBook(SearchContext ctx, Player player, int moveCount) {
+        OpeningBook book = openingBook;
+        if (book == null || !difficulty.useOpeningBook()) {
+            return PackedMove.NONE;
+        }
+        AbaloneGame game = ctx.position;
+        int move = book.probe(game.board(), player, bookRandom);
+        if (!contains(ctx.moves[0], moveCount, move)) {
+            return PackedMove.NONE; // Not in the book, or a hash collision
+        }
+        
+        List<Move> line = new ArrayList<>();
+        line.add(new Move(move));
+        game.make(move);
+        int reply = book.bestMove(game.board(), game.getCurrentPlayer());
+        if (game.checkWinner() == null) {
+            int replyCount = generateAllMoves(game, game.getCurrentPlayer(), ctx.moves[1]);
+            if (contains(ctx.moves[1], replyCount, reply)) {
+                line.add(new Move(reply));
+            }
+        }
+        game.unmake(move);
+        
+        lastSearchNodes = 0;
+        lastSearchDepth = 0;
+        lastPrincipalVariation = line;
+        if (GameLog.DEBUG) {
+            GameLog.d(TAG, "Book move " + line);
+        }
+        return move;
+    }
+    
+    private static boolean contains(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Transposition table shared by all searches of this AI, for hit, miss and overwrite statistics
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+    
+    public int getSearchThreads() {
+        return searchThreads;
+    }
+    
+    /**
+     * Nodes searched by all threads during the last search; playouts for Monte Carlo search
+     */
+    public long getLastSearchNodes() {
+        return lastSearchNodes;
+    }
+    
+    /**
+     * Deepest fully completed iteration of the last minimax search, or the
+     * length of the most visited line of the last Monte Carlo search
+     */
+    public int getLastSearchDepth() {
+        return lastSearchDepth;
+    }
+    
+    /**
+     * Expected line of play found by the last search, starting with the AI's move
+     */
+    public List<Move> getLastPrincipalVariation() {
+        return lastPrincipalVariation;
+    }
+    
+    /**
+     * Switch null-move pruning and late move reductions on or off, e.g. to
+     * measure them against a full-width search in self-play
+     */
+    void setSelectiveSearch(boolean selectiveSearch) {
+        this.selectiveSearch = selectiveSearch;
+    }
+    
+    /**
+     * Route searches to the Monte Carlo backend instead of minimax, e.g. to
+     * compare the two at the same time budget
+     */
+    void setMonteCarlo(boolean monteCarlo) {
+        this.monteCarlo = monteCarlo;
+    }
+    
+    /**
+     * Generate all possible moves for a player into a move buffer
+     */
+    private int generateAllMoves(AbaloneGame game, Player player, int[] moves) {
+        return MoveGenerator.generate(game.board(), player, moves);
+    }
+    
+    /**
+     * Quick scoring of a move
+     */
+    private int quickMoveScore(AbaloneGame game, int move, Player player) {
+        int score = 0;
+        int target = BitBoard.indexOf(PackedMove.target(move));
+        
+        // Prefer center positions
+        int q = BitBoard.q(target);
+        int r = BitBoard.r(target);
+        int centerDistance = Math.abs(q) + Math.abs(r) + Math.abs(-q - r);
+        score -= centerDistance * 2;
+        
+        // Bonus for attacking moves
+        if (PackedMove.isPush(move)) {
+            score += 50;
+        }
+        
+        // Bonus for moves closer to opponent marbles
+        long opponentMarbles = game.board().mask(player.getOpponent());
+        int minDistanceToOpponent = Integer.MAX_VALUE;
+        for (long bits = opponentMarbles; bits != 0; bits &= bits - 1) {
+            int distance = BitBoard.distance(target, Long.numberOfTrailingZeros(bits));
+            minDistanceToOpponent = Math.min(minDistanceToOpponent, distance);
+        }
+        if (opponentMarbles != 0) {
+            score -= minDistanceToOpponent;
+        }
+        
+        return score;
+    }
+    
+    /**
+     * Advanced move scoring with strategic considerations
+     */
+    private int advancedMoveScore(SearchContext ctx, int ply, int move, Player player) {
+        AbaloneGame game = ctx.position;
+        int score = quickMoveScore(game, move, player);
+        Player opponent = player.getOpponent();
+        int[] replies = ctx.moves[ply + 1];
+        
+        // Simulate the move to evaluate its effects
+        int playerScore = game.board().getScore(player);
+        if (makeMove(game, move, player)) {
+            // Check if move creates pushing opportunities
+            int followUpCount = generateAllMoves(game, player, replies);
+            for (int i = 0; i < Math.min(5, followUpCount); i++) {
+                if (makeMove(game, replies[i], player)) {
+                    if (game.board().getScore(player) > playerScore) {
+                        score += 100; // Bonus for creating push opportunities
+                    }
+                    game.unmake(replies[i]);
+                }
+            }
+            
+            // Penalty for exposing marbles to counterattack
+            int opponentScore = game.board().getScore(opponent);
+            int opponentCount = generateAllMoves(game, opponent, replies);
+            for (int i = 0; i < Math.min(8, opponentCount); i++) {
+                if (makeMove(game, replies[i], opponent)) {
+                    if (game.board().getScore(opponent) > opponentScore) {
+                        score -= 80; // Penalty for vulnerable positions
+                    }
+                    game.unmake(replies[i]);
+                }
+            }
+            game.unmake(move);
+        }
+        
+        return score;
+    }
+    
+    /**
+     * Enhanced quick evaluation for Easy difficulty
+     */
+    private int enhancedQuickEvaluate(SearchContext ctx, int moveCount, Player player) {
+        int[] moves = ctx.moves[0];
+        int bestMove = moves[0];
+        int bestScore = Integer.MIN_VALUE;
+        
+        // Evaluate more moves with better scoring
+        int movesToEvaluate = Math.min(moveCount, difficulty.getMaxMovesToEvaluate());
+        for (int i = 0; i < movesToEvaluate; i++) {
+            int score = advancedMoveScore(ctx, 0, moves[i], player);
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = moves[i];
+            }
+        }
+        
+        return bestMove;
+    }
+    
+    /**
+     * Minimax evaluation with time limit and iterative deepening; the default
+     * {@link SearchEngine}.
+     *
+     * With several search threads this is a Lazy SMP search: helper threads run
+     * the same root on their own position copies, sharing only the transposition
+     * table, and the deepest completed iteration of any thread wins.
+     */
+    private int minimaxEvaluateWithTimeLimit(SearchContext ctx, int moveCount, Player player,
+                                             long timeLimit, int threads) {
+        long startTime = System.currentTimeMillis();
+        int[] moves = ctx.moves[0];
+        int[] scores = ctx.scores[0];
+        
+        ctx.keySalt = player == Player.BLACK ? BLACK_SEARCH_KEY : 0L;
+        table.newSearch();
+        long rootEntry = table.probe(ctx.position.positionHash() ^ ctx.keySalt);
+        int ttMove = rootEntry != 0 ? TranspositionTable.move(rootEntry) : PackedMove.NONE;
+        
+        // Enhanced move sorting with multiple criteria; a stored best move goes first
+        for (int i = 0; i < moveCount; i++) {
+            scores[i] = moves[i] == ttMove ? Integer.MAX_VALUE : advancedMoveScore(ctx, 0, moves[i], player);
+        }
+        sortMoves(moves, scores, moveCount);
+        
+        return lazySmp(ctx, moveCount, difficulty.getSearchDepth(), player, startTime, timeLimit, threads);
+    }
+    
+    /**
+     * Iterative deepening over the sorted root moves on the calling thread
+     * and {@code threads - 1} helpers, returning the move of the deepest
+     * completed iteration with its statistics left in the context
+     */
+    private int lazySmp(SearchContext ctx, int maxMoves, int maxDepth, Player player,
+                        long startTime, long timeLimit, int threads) {
+        int[] moves = ctx.moves[0];
+        
+        // Helpers get their own copies before the main search starts moving its position;
+        // odd helpers start one iteration deeper so the threads spread over different depths
+        SearchContext[] helpers = new SearchContext[threads - 1];
+        List<Future<?>> running = new ArrayList<>();
+        for (int t = 0; t < helpers.length; t++) {
+            SearchContext helper = new SearchContext(ctx.position, ctx.stop);
+            helper.keySalt = ctx.keySalt;
+            System.arraycopy(moves, 0, helper.moves[0], 0, maxMoves);
+            int startDepth = 1 + (t + 1) % 2;
+            helpers[t] = helper;
+            running.add(helperPool.submit(() ->
+                iterativeDeepening(helper, maxMoves, startDepth, maxDepth, player, startTime, timeLimit)));
+        }
+        
+        iterativeDeepening(ctx, maxMoves, 1, maxDepth, player, startTime, timeLimit);
+        if (helpers.length > 0) {
+            ctx.stop.set(true);
+        }
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // A failed helper only costs its share of the search
+            }
+        }
+        
+        // The main thread wins ties so a single-threaded search behaves as before;
+        // a deeper helper's result is copied into the main context for the caller
+        SearchContext best = ctx;
+        long nodes = ctx.nodes;
+        for (SearchContext helper : helpers) {
+            nodes += helper.nodes;
+            if (helper.completedDepth > best.completedDepth && helper.bestMove != PackedMove.NONE) {
+                best = helper;
+            }
+        }
+        ctx.nodes = nodes;
+        if (best != ctx) {
+            ctx.bestMove = best.bestMove;
+            ctx.bestScore = best.bestScore;
+            ctx.completedDepth = best.completedDepth;
+            ctx.previousPvLength = best.previousPvLength;
+            System.arraycopy(best.previousPv, 0, ctx.previousPv, 0, best.previousPvLength);
+        }
+        
+        return ctx.bestMove != PackedMove.NONE ? ctx.bestMove : moves[0];
+    }
+    
+    /**
+     * Single-threaded search to a fixed depth without a clock, for benchmarks
+     * and tests. Uses the same root ordering as a timed search.
+     */
+    int searchFixedDepth(SearchContext ctx, Player player, int depth) {
+        return searchFixedDepth(ctx, player, depth, 1);
+    }
+    
+    /**
+     * Search to a fixed depth without a clock on up to {@link #getSearchThreads()}
+     * threads, the parallel search run to completion
+     */
+    int searchFixedDepth(SearchContext ctx, Player player, int depth, int threads) {
+        int[] moves = ctx.moves[0];
+        int[] scores = ctx.scores[0];
+        int moveCount = generateAllMoves(ctx.position, player, moves);
+        if (moveCount == 0) {
+            return PackedMove.NONE;
+        }
+        for (int i = 0; i < moveCount; i++) {
+            scores[i] = advancedMoveScore(ctx, 0, moves[i], player);
+        }
+        sortMoves(moves, scores, moveCount);
+        
+        ctx.keySalt = player == Player.BLACK ? BLACK_SEARCH_KEY : 0L;
+        table.newSearch();
+        lazySmp(ctx, moveCount, depth, player, System.currentTimeMillis(), Long.MAX_VALUE / 2,
+            Math.min(threads, searchThreads));
+        return ctx.bestMove;
+    }
+    
+    /**
+     * Iterative deepening over the sorted root moves of a search context,
+     * leaving the best move and deepest completed iteration in the context.
+     *
+     * From depth 3 on each iteration starts with an aspiration window around
+     * the previous score and widens it when the result falls outside.
+     */
+    private void iterativeDeepening(SearchContext ctx, int maxMoves, int startDepth, int maxDepth,
+                                    Player player, long startTime, long timeLimit) {
+        AbaloneGame game = ctx.position;
+        int[] moves = ctx.moves[0];
+        long rootKey = game.positionHash() ^ ctx.keySalt;
+        ctx.previousPvLength = 0;
+        
+        for (int depth = startDepth; depth <= maxDepth; depth++) {
+            if (ctx.stop.get() || System.currentTimeMillis() - startTime > timeLimit * 0.8) {
+                break; // Reserve 20% time for safety
+            }
+            
+            int window = ASPIRATION_WINDOW;
+            boolean aspirate = depth >= 3 && ctx.bestMove != PackedMove.NONE;
+            int alpha = aspirate ? ctx.bestScore - window : -INFINITY;
+            int beta = aspirate ? ctx.bestScore + window : INFINITY;
+            int score;
+            while (true) {
+                ctx.followPv = true;
+                score = searchRoot(ctx, maxMoves, depth, alpha, beta, player, startTime, timeLimit);
+                if (ctx.timeUp) {
+                    break;
+                }
+                // Outside the window the score is only a bound: widen that side and search again
+                window *= 4;
+                if (score <= alpha && alpha > -INFINITY) {
+                    alpha = Math.max(-INFINITY, score - window);
+                } else if (score >= beta && beta < INFINITY) {
+                    beta = Math.min(INFINITY, score + window);
+                } else {
+                    break;
+                }
+            }
+            
+            // An interrupted iteration only counts if a move beat the window's lower bound
+            int rootMove = ctx.pvLength[0] > 0 ? ctx.pv[0][0] : PackedMove.NONE;
+            if (rootMove != PackedMove.NONE && (!ctx.timeUp || score > alpha)) {
+                ctx.bestMove = rootMove;
+                ctx.bestScore = score;
+                // Search the best move first in the next iteration
+                for (int i = 0; i < maxMoves; i++) {
+                    if (moves[i] == rootMove) {
+                        System.arraycopy(moves, 0, moves, 1, i);
+                        moves[0] = rootMove;
+                        break;
+                    }
+                }
+                if (!ctx.timeUp) {
+                    ctx.completedDepth = depth;
+                    ctx.previousPvLength = ctx.pvLength[0];
+                    System.arraycopy(ctx.pv[0], 0, ctx.previousPv, 0, ctx.pvLength[0]);
+                    table.store(rootKey, rootMove, score, depth, TranspositionTable.EXACT);
+                    if (ctx.handle != null) {
+                        ctx.handle.report(new SearchInfo(new Move(rootMove), score, depth, ctx.nodes,
+                            System.currentTimeMillis() - startTime));
+                    }
+                }
+            }
+            if (ctx.timeUp) {
+                break;
+            }
+        }
+    }
+    
+    /**
+     * Principal variation search over the root moves within a window. The
+     * first move gets the full window, the rest a null window that is only
+     * widened when a move turns out better.
+     */
+    private int searchRoot(SearchContext ctx, int maxMoves, int depth, int alpha, int beta,
+                           Player player, long startTime, long timeLimit) {
+        AbaloneGame game = ctx.position;
+        int[] moves = ctx.moves[0];
+        int bestScore = -INFINITY;
+        int searched = 0;
+        ctx.pvLength[0] = 0;
+        
+        for (int i = 0; i < maxMoves; i++) {
+            if (ctx.stop.get() || ctx.nodes > ctx.maxNodes || System.currentTimeMillis() - startTime > timeLimit * 0.9) {
+                ctx.timeUp = true;
+                break; // Time almost up
+            }
+            
+            int move = moves[i];
+            if (makeMove(game, move, player)) {
+                ctx.played[0] = move;
+                int score = searchChild(ctx, 1, depth - 1, alpha, beta, searched++ == 0, 0,
+                                        player, startTime, timeLimit);
+                game.unmake(move);
+                if (ctx.timeUp) {
+                    break; // The score of an unfinished subtree is no score
+                }
+                
+                if (score > bestScore) {
+                    bestScore = score;
+                    if (score > alpha || ctx.pvLength[0] == 0) {
+                        updatePv(ctx, 0, move);
+                    }
+                }
+                alpha = Math.max(alpha, score);
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        return bestScore;
+    }
+    
+    /**
+     * Score of the move just played, from the mover's view. The first move of
+     * a node is searched with the full window; later ones with a null window
+     * first, possibly reduced, and again at full depth and then with the full
+     * window as long as they beat alpha.
+     */
+    private int searchChild(SearchContext ctx, int ply, int depth, int alpha, int beta, boolean first,
+                            int reduction, Player aiPlayer, long startTime, long timeLimit) {
+        if (first) {
+            int score = -negamax(ctx, ply, depth, -beta, -alpha, aiPlayer, startTime, timeLimit);
+            ctx.followPv = false;
+            return score;
+        }
+        int score = -negamax(ctx, ply, depth - reduction, -alpha - 1, -alpha, aiPlayer, startTime, timeLimit);
+        if (reduction > 0 && score > alpha) {
+            score = -negamax(ctx, ply, depth, -alpha - 1, -alpha, aiPlayer, startTime, timeLimit);
+        }
+        if (score > alpha && score < beta) {
+            score = -negamax(ctx, ply, depth, -beta, -alpha, aiPlayer, startTime, timeLimit);
+        }
+        return score;
+    }
+    
+    /**
+     * Make a move the head of the principal variation at a ply, followed by the child's line
+     */
+    private static void updatePv(SearchContext ctx, int ply, int move) {
+        ctx.pv[ply][ply] = move;
+        int childLength = ply + 1 < MAX_PLY ? ctx.pvLength[ply + 1] : ply + 1;
+        for (int i = ply + 1; i < childLength; i++) {
+            ctx.pv[ply][i] = ctx.pv[ply + 1][i];
+        }
+        ctx.pvLength[ply] = Math.max(ply + 1, childLength);
+    }
+    
+    /**
+     * Negamax search with alpha-beta pruning, transposition table and time management.
+     * Scores are from the point of view of the side to move.
+     */
+    private int negamax(SearchContext ctx, int ply, int depth, int alpha, int beta,
+                        Player aiPlayer, long startTime, long timeLimit) {
+        AbaloneGame game = ctx.position;
+        Player currentPlayer = game.getCurrentPlayer();
+        int sign = currentPlayer == aiPlayer ? 1 : -1;
+        ctx.nodes++;
+        ctx.pvLength[ply] = ply;
+        
+        // Time check to avoid going over limit, or stop when another thread has finished
+        if (ctx.stop.get() || ctx.nodes > ctx.maxNodes || System.currentTimeMillis() - startTime > timeLimit * 0.95) {
+            ctx.timeUp = true;
+            return sign * evaluatePosition(ctx, aiPlayer);
+        }
+        
+        // Terminal conditions
+        Player winner = game.checkWinner();
+        if (winner == currentPlayer) {
+            return WIN_SCORE + depth; // Prefer faster wins with higher reward
+        } else if (winner != null) {
+            return -WIN_SCORE - depth; // Avoid fast losses with severe penalty
+        } else if (depth == 0 || ply >= MAX_PLY - 1) {
+            return quiescence(ctx, ply, 0, alpha, beta, aiPlayer, startTime, timeLimit);
+        }
+        
+        // Transposition table: cut off on a deep enough bound, otherwise try the stored move first
+        long key = game.positionHash() ^ ctx.keySalt;
+        long entry = table.probe(key);
+        int ttMove = PackedMove.NONE;
+        if (entry != 0) {
+            ttMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int ttScore = TranspositionTable.score(entry);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && ttScore >= beta)
+                        || (bound == TranspositionTable.UPPER && ttScore <= alpha)) {
+                    return ttScore;
+                }
+            }
+        }
+        
+        // Null move: if passing still fails high on a reduced search, a real move
+        // would too. Not at PV nodes, never twice in a row, and not when the side
+        // to move is down to few marbles, where having to move can be the danger.
+        boolean pvNode = beta - alpha > 1;
+        if (selectiveSearch && !pvNode && depth >= NULL_MOVE_MIN_DEPTH && ctx.played[ply - 1] != PackedMove.NONE
+                && game.board().count(currentPlayer) >= NULL_MOVE_MIN_MARBLES
+                && sign * evaluatePosition(ctx, aiPlayer) >= beta) {
+            int reduction = depth >= 6 ? 3 : 2;
+            game.passTurn();
+            ctx.played[ply] = PackedMove.NONE;
+            int score = -negamax(ctx, ply + 1, depth - 1 - reduction, -beta, -beta + 1,
+                                 aiPlayer, startTime, timeLimit);
+            game.passTurn();
+            if (score >= beta && !ctx.timeUp) {
+                return score >= WIN_SCORE ? beta : score; // A win found by passing is not proven
+            }
+        }
+        
+        int[] moves = ctx.moves[ply];
+        int moveCount = generateAllMoves(game, currentPlayer, moves);
+        
+        if (moveCount == 0) {
+            return sign * evaluatePosition(ctx, aiPlayer);
+        }
+        
+        // Score every move once for ordering: the previous iteration's principal
+        // variation while still on it, the stored best move, then pushes,
+        // killers, the counter-move and quiet moves by history
+        int pvMove = ctx.followPv && ply < ctx.previousPvLength ? ctx.previousPv[ply] : PackedMove.NONE;
+        int[] scores = ctx.scores[ply];
+        scoreMoves(ctx, ply, moves, scores, moveCount, pvMove, ttMove, currentPlayer);
+        
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = PackedMove.NONE;
+        int searched = 0;
+        for (int i = 0; i < moveCount; i++) {
+            // Moves are picked best-first as needed, most nodes cut off after a few
+            pickMove(moves, scores, i, moveCount);
+            int move = moves[i];
+            if (i == 0 && move != pvMove) {
+                ctx.followPv = false;
+            }
+            if (makeMove(game, move, currentPlayer)) {
+                ctx.played[ply] = move;
+                // Late quiet moves, below the killers and counter-move, are searched shallower first
+                int reduction = 0;
+                if (selectiveSearch && depth >= LMR_MIN_DEPTH && searched >= LMR_FULL_MOVES && scores[i] < COUNTER_ORDER) {
+                    reduction = depth >= 5 && searched >= 8 ? 2 : 1;
+                }
+                int score = searchChild(ctx, ply + 1, depth - 1, alpha, beta, searched++ == 0, reduction,
+                                        aiPlayer, startTime, timeLimit);
+                game.unmake(move);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = move;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ctx, ply, move);
+                }
+                if (alpha >= beta) {
+                    if (!PackedMove.isPush(move)) {
+                        recordCutoff(ctx, ply, depth, move, currentPlayer);
+                    }
+                    break; // Alpha-beta pruning
+                }
+            }
+        }
+        
+        // Results cut short by the clock are not trustworthy enough to keep
+        if (!ctx.timeUp) {
+            int bound = bestScore <= originalAlpha ? TranspositionTable.UPPER
+                : bestScore >= beta ? TranspositionTable.LOWER
+                : TranspositionTable.EXACT;
+            table.store(key, bestMove, bestScore, depth, bound);
+        }
+        return bestScore;
+    }
+    
+    /**
+     * Quiescence search: past the nominal depth, keep searching pushes and
+     * ejections until the position is quiet, so the evaluation never lands in
+     * the middle of a sumito exchange. The side to move may always stand pat
+     * on the static evaluation instead of pushing.
+     */
+    private int quiescence(SearchContext ctx, int ply, int qply, int alpha, int beta,
+                           Player aiPlayer, long startTime, long timeLimit) {
+        AbaloneGame game = ctx.position;
+        Player currentPlayer = game.getCurrentPlayer();
+        int sign = currentPlayer == aiPlayer ? 1 : -1;
+        ctx.nodes++;
+        ctx.pvLength[ply] = ply;
+        
+        Player winner = game.checkWinner();
+        if (winner == currentPlayer) {
+            return WIN_SCORE;
+        } else if (winner != null) {
+            return -WIN_SCORE;
+        }
+        
+        int standPat = sign * evaluatePosition(ctx, aiPlayer);
+        if (standPat >= beta || qply >= MAX_QUIESCENCE_PLY || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        if (ctx.stop.get() || ctx.nodes > ctx.maxNodes || System.currentTimeMillis() - startTime > timeLimit * 0.95) {
+            ctx.timeUp = true;
+            return standPat;
+        }
+        // Delta pruning: not even an ejection would bring the score up to alpha
+        if (standPat + EJECTION_VALUE + DELTA_MARGIN <= alpha) {
+            return standPat;
+        }
+        alpha = Math.max(alpha, standPat);
+        
+        int[] moves = ctx.moves[ply];
+        int moveCount = MoveGenerator.generatePushes(game.board(), currentPlayer, moves);
+        int bestScore = standPat;
+        for (int i = 0; i < moveCount; i++) {
+            int move = moves[i];
+            // Ejections come first; plain pushes only matter if they can reach alpha
+            if (!PackedMove.ejects(move) && standPat + DELTA_MARGIN <= alpha) {
+                break;
+            }
+            if (makeMove(game, move, currentPlayer)) {
+                int score = -quiescence(ctx, ply + 1, qply + 1, -beta, -alpha, aiPlayer, startTime, timeLimit);
+                game.unmake(move);
+                if (score > bestScore) {
+                    bestScore = score;
+                }
+                alpha = Math.max(alpha, score);
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        return bestScore;
+    }
+    
+    /**
+     * Ordering score of each move at a search node
+     */
+    private void scoreMoves(SearchContext ctx, int ply, int[] moves, int[] scores, int count,
+                            int pvMove, int ttMove, Player player) {
+        int side = player == Player.BLACK ? 0 : PackedMove.SHAPES;
+        int opponentSide = PackedMove.SHAPES - side;
+        int[] killers = ctx.killers[ply];
+        int previous = ply > 0 ? ctx.played[ply - 1] : PackedMove.NONE;
+        int counter = previous != PackedMove.NONE
+            ? ctx.counterMoves[opponentSide + PackedMove.shape(previous)] : PackedMove.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (move == pvMove) {
+                scores[i] = Integer.MAX_VALUE;
+            } else if (move == ttMove) {
+                scores[i] = Integer.MAX_VALUE - 1;
+            } else if (PackedMove.ejects(move)) {
+                scores[i] = EJECTION_ORDER + PackedMove.pushedCount(move);
+            } else if (PackedMove.isPush(move)) {
+                scores[i] = PUSH_ORDER + PackedMove.pushedCount(move);
+            } else if (move == killers[0]) {
+                scores[i] = KILLER_ORDER + 1;
+            } else if (move == killers[1]) {
+                scores[i] = KILLER_ORDER;
+            } else if (move == counter) {
+                scores[i] = COUNTER_ORDER;
+            } else {
+                // History decides, the target's distance from the center breaks ties
+                scores[i] = ctx.history[side + PackedMove.shape(move)] * 64 + 32 - centerDistance(move);
+            }
+        }
+    }
+    
+    /**
+     * Twice the hex distance of a move's target cell from the center (0-16)
+     */
+    static int centerDistance(int move) {
+        Hex target = PackedMove.target(move);
+        return Math.abs(target.q) + Math.abs(target.r) + Math.abs(-target.q - target.r);
+    }
+    
+    /**
+     * Remember a quiet move that caused a beta cutoff as killer, counter-move and in the history
+     */
+    private static void recordCutoff(SearchContext ctx, int ply, int depth, int move, Player player) {
+        int[] killers = ctx.killers[ply];
+        if (killers[0] != move) {
+            killers[1] = killers[0];
+            killers[0] = move;
+        }
+        
+        int side = player == Player.BLACK ? 0 : PackedMove.SHAPES;
+        if (ply > 0 && ctx.played[ply - 1] != PackedMove.NONE) {
+            int opponentSide = PackedMove.SHAPES - side;
+            ctx.counterMoves[opponentSide + PackedMove.shape(ctx.played[ply - 1])] = move;
+        }
+        
+        int slot = side + PackedMove.shape(move);
+        ctx.history[slot] += depth * depth;
+        if (ctx.history[slot] >= HISTORY_LIMIT) {
+            for (int i = 0; i < ctx.history.length; i++) {
+                ctx.history[i] /= 2;
+            }
+        }
+    }
+    
+    /**
+     * Swap the best-scored of the remaining moves into position i
+     */
+    private static void pickMove(int[] moves, int[] scores, int i, int count) {
+        int best = i;
+        for (int j = i + 1; j < count; j++) {
+            if (scores[j] > scores[best]) {
+                best = j;
+            }
+        }
+        if (best != i) {
+            int move = moves[i];
+            int score = scores[i];
+            moves[i] = moves[best];
+            scores[i] = scores[best];
+            moves[best] = move;
+            scores[best] = score;
+        }
+    }
+    
+    /**
+     * Sort moves by descending score in place; stable, and scores move with their moves
+     */
+    private static void sortMoves(int[] moves, int[] scores, int count) {
+        for (int i = 1; i < count; i++) {
+            int move = moves[i];
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                moves[j + 1] = moves[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            scores[j + 1] = score;
+        }
+    }
+    
+    /**
+     * Enhanced board position evaluation
+     */
+    int evaluatePosition(SearchContext ctx, Player aiPlayer) {
+        BitBoard board = ctx.position.board();
+        Player opponent = aiPlayer.getOpponent();
+        int score = 0;
+        
+        // Score difference (most important factor)
+        int scoreDiff = board.getScore(aiPlayer) - board.getScore(opponent);
+        score += scoreDiff * 2000; // Doubled importance
+        
+        // Extended center control, kept up to date by the board
+        score += (board.centerCount(aiPlayer) - board.centerCount(opponent)) * 60;
+        
+        // Marble count
+        score += (board.count(aiPlayer) - board.count(opponent)) * 30;
+        
+        // Advanced features for Medium and Hard
+        if (difficulty.useAdvancedEvaluation()) {
+            // Formation strength
+            score += (calculateFormationStrength(board, aiPlayer) - calculateFormationStrength(board, opponent)) * 15;
+            
+            // Mobility (number of available moves), counted from line tables
+            score += (Mobility.count(board, aiPlayer) - Mobility.count(board, opponent)) * 8;
+            
+            // Edge safety (penalty for marbles near the edge)
+            score -= board.edgeExposure(aiPlayer) * 25;
+            score += board.edgeExposure(opponent) * 25;
+            
+            // Cohesion (only for HARD difficulty)
+            if (difficulty == AIDifficulty.HARD) {
+                score += (calculateCohesion(board, aiPlayer) - calculateCohesion(board, opponent)) * 12;
+                
+                // Advanced tactical patterns
+                score += evaluateTacticalPatterns(board, aiPlayer) * 20;
+            }
+        }
+        
+        return score;
+    }
+    
+    /**
+     * Calculate formation strength - how well marbles support each other
+     */
+    private int calculateFormationStrength(BitBoard board, Player player) {
+        int strength = 0;
+        long marbles = board.mask(player);
+        
+        for (long rest = marbles; rest != 0; rest &= rest - 1) {
+            int neighbors = Long.bitCount(marbles & BitBoard.neighborMask(Long.numberOfTrailingZeros(rest)));
+            // Reward marbles with 2-3 neighbors (good formation)
+            if (neighbors >= 2) {
+                strength += neighbors * 2;
+            }
+        }
+        
+        return strength;
+    }
+    
+    /**
+     * Evaluate tactical patterns and threats
+     */
+    private int evaluateTacticalPatterns(BitBoard board, Player player) {
+        // Reward sumitos that would push a marble off the board, net of the opponent's
+        return (Mobility.ejectionThreats(board, player) - Mobility.ejectionThreats(board, player.getOpponent())) * 5;
+    }
+    
+    /**
+     * Calculate marble cohesion (how close marbles are to each other)
+     */
+    private int calculateCohesion(BitBoard board, Player player) {
+        int cohesion = 0;
+        long marbles = board.mask(player);
+        
+        // Only the first 8 marbles in cell order count
+        long rest = marbles;
+        for (int i = 0; i < 8 && rest != 0; i++, rest &= rest - 1) {
+            cohesion += Long.bitCount(marbles & BitBoard.neighborMask(Long.numberOfTrailingZeros(rest)));
+        }
+        
+        return cohesion;
+    }
+    
+    /**
+     * Play a generated move in place on the search position. The caller must
+     * take it back with {@link AbaloneGame#unmake} when this returns true.
+     */
+    private boolean makeMove(AbaloneGame game, int move, Player player) {
+        if (game.getCurrentPlayer() != player) {
+            return false;
+        }
+        game.make(move);
+        return true;
+    }
+    
+    /**
+     * Clean up resources
+     */
+    public void shutdown() {
+        stopPondering();
+        if (ponderClock != null) {
+            ponderClock.shutdownNow();
+        }
+        SearchHandle search = activeSearch;
+        if (search != null) {
+            search.cancel();
+        }
+        if (executor != null && !executor.isShutdown()) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+            }
+        }
+        if (helperPool != null) {
+            helperPool.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
@@ -2,36 +2,35 @@ package io.celox.hexpulse.game;
 
 import java.util.*;
 
-import java.util.Stack;
-
 /**
  * Core game logic for Abalone
  */
 public class AbaloneGame {
-    private Map<Hex, Player> board;
+    private static final String TAG = "AbaloneGame";
+    
+    private final BitBoard board;
+    private final MoveExecutor executor;
     private Player currentPlayer;
-    private Map<Player, Integer> scores;
     private List<Hex> selectedMarbles;
     private Set<Hex> validMoves;
     private static final int WINNING_SCORE = 6;
-    private static final int MAX_UNDO_HISTORY = 10; // Maximum number of moves to keep for undo
     
-    // Multi-Undo system
-    private Stack<GameSnapshot> undoHistory;
+    // Multi-Undo system: played moves, undone by replaying them backwards
+    private final MoveJournal journal;
     private int currentMoveNumber;
     
     // Debug functionality
-    private Map<Hex, Player> preMoveBoardState;
+    private BitBoard preMoveBoardState;
     private List<Hex> debugSelectedMarbles;
     private Hex debugTargetPosition;
     private Player debugCurrentPlayer;
     
     public AbaloneGame() {
-        board = new HashMap<>();
-        scores = new HashMap<>();
+        board = new BitBoard();
+        executor = new MoveExecutor(board);
         selectedMarbles = new ArrayList<>();
         validMoves = new HashSet<>();
-        undoHistory = new Stack<>();
+        journal = new MoveJournal();
         currentMoveNumber = 0;
         preMoveBoardState = null;
         debugSelectedMarbles = new ArrayList<>();
@@ -45,8 +44,6 @@ public class AbaloneGame {
      */
     private void initializeGame() {
         currentPlayer = Player.BLACK;
-        scores.put(Player.BLACK, 0);
-        scores.put(Player.WHITE, 0);
         selectedMarbles.clear();
         validMoves.clear();
         createBoard();
@@ -58,14 +55,6 @@ public class AbaloneGame {
      */
     private void createBoard() {
         board.clear();
-        for (int q = -4; q <= 4; q++) {
-            for (int r = -4; r <= 4; r++) {
-                int s = -q - r;
-                if (s >= -4 && s <= 4) {
-                    board.put(new Hex(q, r), Player.EMPTY);
-                }
-            }
-        }
     }
     
     /**
@@ -74,24 +63,24 @@ public class AbaloneGame {
     private void setupInitialPosition() {
         // Black marbles (top)
         List<Hex> blackPositions = Arrays.asList(
-            new Hex(-4, 0), new Hex(-3, -1), new Hex(-2, -2), new Hex(-1, -3), new Hex(0, -4),
-            new Hex(-4, 1), new Hex(-3, 0), new Hex(-2, -1), new Hex(-1, -2), new Hex(0, -3), new Hex(1, -4),
-            new Hex(-2, 0), new Hex(-1, -1), new Hex(0, -2)
+            Hex.of(-4, 0), Hex.of(-3, -1), Hex.of(-2, -2), Hex.of(-1, -3), Hex.of(0, -4),
+            Hex.of(-4, 1), Hex.of(-3, 0), Hex.of(-2, -1), Hex.of(-1, -2), Hex.of(0, -3), Hex.of(1, -4),
+            Hex.of(-2, 0), Hex.of(-1, -1), Hex.of(0, -2)
         );
         
         // White marbles (bottom)
         List<Hex> whitePositions = Arrays.asList(
-            new Hex(4, 0), new Hex(3, 1), new Hex(2, 2), new Hex(1, 3), new Hex(0, 4),
-            new Hex(4, -1), new Hex(3, 0), new Hex(2, 1), new Hex(1, 2), new Hex(0, 3), new Hex(-1, 4),
-            new Hex(2, 0), new Hex(1, 1), new Hex(0, 2)
+            Hex.of(4, 0), Hex.of(3, 1), Hex.of(2, 2), Hex.of(1, 3), Hex.of(0, 4),
+            Hex.of(4, -1), Hex.of(3, 0), Hex.of(2, 1), Hex.of(1, 2), Hex.of(0, 3), Hex.of(-1, 4),
+            Hex.of(2, 0), Hex.of(1, 1), Hex.of(0, 2)
         );
         
         for (Hex pos : blackPositions) {
-            board.put(pos, Player.BLACK);
+            board.set(pos, Player.BLACK);
         }
         
         for (Hex pos : whitePositions) {
-            board.put(pos, Player.WHITE);
+            board.set(pos, Player.WHITE);
         }
     }
     
@@ -99,14 +88,14 @@ public class AbaloneGame {
      * Get player at position
      */
     public Player getPlayerAt(Hex position) {
-        return board.getOrDefault(position, Player.EMPTY);
+        return board.get(position);
     }
     
     /**
      * Check if position is valid on board
      */
     public boolean isValidPosition(Hex position) {
-        return board.containsKey(position);
+        return position != null && BitBoard.indexOf(position) >= 0;
     }
     
     /**
@@ -120,7 +109,10 @@ public class AbaloneGame {
      * Get scores
      */
     public Map<Player, Integer> getScores() {
-        return new HashMap<>(scores);
+        Map<Player, Integer> scores = new HashMap<>();
+        scores.put(Player.BLACK, board.getScore(Player.BLACK));
+        scores.put(Player.WHITE, board.getScore(Player.WHITE));
+        return scores;
     }
     
     /**
@@ -155,50 +147,72 @@ public class AbaloneGame {
      * UPDATED: Allow selection of any marbles (even invalid combinations), but only show valid moves for legal selections
      */
     public boolean selectMarble(Hex position) {
-        android.util.Log.d("AbaloneGame", "=== selectMarble DEBUG START ===");
-        android.util.Log.d("AbaloneGame", "selectMarble - position: " + position);
-        android.util.Log.d("AbaloneGame", "selectMarble - currentPlayer: " + currentPlayer);
-        android.util.Log.d("AbaloneGame", "selectMarble - selectedMarbles BEFORE: " + selectedMarbles);
-        android.util.Log.d("AbaloneGame", "selectMarble - selectedMarbles.size() BEFORE: " + selectedMarbles.size());
+        if (GameLog.DEBUG) {
+            GameLog.d(TAG, "=== selectMarble DEBUG START ===");
+            GameLog.d(TAG, "selectMarble - position: " + position);
+            GameLog.d(TAG, "selectMarble - currentPlayer: " + currentPlayer);
+            GameLog.d(TAG, "selectMarble - selectedMarbles BEFORE: " + selectedMarbles);
+            GameLog.d(TAG, "selectMarble - selectedMarbles.size() BEFORE: " + selectedMarbles.size());
+        }
         
         if (!isValidPosition(position)) {
-            android.util.Log.d("AbaloneGame", "selectMarble - REJECTED: Invalid position");
+            if (GameLog.DEBUG) {
+                GameLog.d(TAG, "selectMarble - REJECTED: Invalid position");
+            }
             return false;
         }
         
         Player marble = board.get(position);
-        android.util.Log.d("AbaloneGame", "selectMarble - marble at position: " + marble);
+        if (GameLog.DEBUG) {
+            GameLog.d(TAG, "selectMarble - marble at position: " + marble);
+        }
         
         // Can only select current player's marbles
         if (marble == currentPlayer) {
             if (selectedMarbles.contains(position)) {
                 // Deselect marble
-                android.util.Log.d("AbaloneGame", "selectMarble - DESELECTING marble at: " + position);
+                if (GameLog.DEBUG) {
+                    GameLog.d(TAG, "selectMarble - DESELECTING marble at: " + position);
+                }
                 selectedMarbles.remove(position);
-                android.util.Log.d("AbaloneGame", "selectMarble - selectedMarbles AFTER deselection: " + selectedMarbles);
+                if (GameLog.DEBUG) {
+                    GameLog.d(TAG, "selectMarble - selectedMarbles AFTER deselection: " + selectedMarbles);
+                }
             } else {
                 // Try to select marble - now allow any combination up to 3 marbles
-                android.util.Log.d("AbaloneGame", "selectMarble - ATTEMPTING to select marble at: " + position);
+                if (GameLog.DEBUG) {
+                    GameLog.d(TAG, "selectMarble - ATTEMPTING to select marble at: " + position);
+                }
                 
                 // Check maximum of 3 marbles
                 if (selectedMarbles.size() >= 3) {
-                    android.util.Log.d("AbaloneGame", "selectMarble - REJECTED: Too many marbles (already have 3)");
+                    if (GameLog.DEBUG) {
+                        GameLog.d(TAG, "selectMarble - REJECTED: Too many marbles (already have 3)");
+                    }
                     return false; // Cannot select more than 3 marbles
                 }
                 
-                android.util.Log.d("AbaloneGame", "selectMarble - ADDING marble to selection: " + position);
+                if (GameLog.DEBUG) {
+                    GameLog.d(TAG, "selectMarble - ADDING marble to selection: " + position);
+                }
                 selectedMarbles.add(position);
-                android.util.Log.d("AbaloneGame", "selectMarble - selectedMarbles AFTER addition: " + selectedMarbles);
+                if (GameLog.DEBUG) {
+                    GameLog.d(TAG, "selectMarble - selectedMarbles AFTER addition: " + selectedMarbles);
+                }
             }
             updateValidMoves();
-            android.util.Log.d("AbaloneGame", "selectMarble - validMoves updated, count: " + validMoves.size());
-            android.util.Log.d("AbaloneGame", "selectMarble - FINAL selectedMarbles: " + selectedMarbles);
-            android.util.Log.d("AbaloneGame", "=== selectMarble DEBUG END - SUCCESS ===");
+            if (GameLog.DEBUG) {
+                GameLog.d(TAG, "selectMarble - validMoves updated, count: " + validMoves.size());
+                GameLog.d(TAG, "selectMarble - FINAL selectedMarbles: " + selectedMarbles);
+                GameLog.d(TAG, "=== selectMarble DEBUG END - SUCCESS ===");
+            }
             return true;
         }
         
-        android.util.Log.d("AbaloneGame", "selectMarble - REJECTED: Not current player's marble");
-        android.util.Log.d("AbaloneGame", "=== selectMarble DEBUG END - FAILURE ===");
+        if (GameLog.DEBUG) {
+            GameLog.d(TAG, "selectMarble - REJECTED: Not current player's marble");
+            GameLog.d(TAG, "=== selectMarble DEBUG END - FAILURE ===");
+        }
         return false;
     }
     
@@ -206,23 +220,31 @@ public class AbaloneGame {
      * Check if marbles form a straight line (helper method for selection validation)
      */
     private boolean areMarblesStraightLine(List<Hex> marbles) {
-        android.util.Log.d("AbaloneGame", "=== areMarblesStraightLine DEBUG START ===");
-        android.util.Log.d("AbaloneGame", "areMarblesStraightLine - marbles: " + marbles);
-        android.util.Log.d("AbaloneGame", "areMarblesStraightLine - marbles.size(): " + marbles.size());
+        if (GameLog.DEBUG) {
+            GameLog.d(TAG, "=== areMarblesStraightLine DEBUG START ===");
+            GameLog.d(TAG, "areMarblesStraightLine - marbles: " + marbles);
+            GameLog.d(TAG, "areMarblesStraightLine - marbles.size(): " + marbles.size());
+        }
         
         if (marbles.size() <= 1) {
-            android.util.Log.d("AbaloneGame", "areMarblesStraightLine - RESULT: true (size <= 1)");
+            if (GameLog.DEBUG) {
+                GameLog.d(TAG, "areMarblesStraightLine - RESULT: true (size <= 1)");
+            }
             return true;
         }
         
         // Use new MoveValidator to check if marbles form a valid column
         MoveValidator validator = new MoveValidator(board, currentPlayer);
         List<MoveValidator.ValidatedMove> moves = validator.getValidMoves(marbles);
-        android.util.Log.d("AbaloneGame", "areMarblesStraightLine - validator found " + moves.size() + " valid moves");
+        if (GameLog.DEBUG) {
+            GameLog.d(TAG, "areMarblesStraightLine - validator found " + moves.size() + " valid moves");
+        }
         
         boolean result = !moves.isEmpty(); // If there are valid moves, marbles form a line
-        android.util.Log.d("AbaloneGame", "areMarblesStraightLine - RESULT: " + result);
-        android.util.Log.d("AbaloneGame", "=== areMarblesStraightLine DEBUG END ===");
+        if (GameLog.DEBUG) {
+            GameLog.d(TAG, "areMarblesStraightLine - RESULT: " + result);
+            GameLog.d(TAG, "=== areMarblesStraightLine DEBUG END ===");
+        }
         return result;
     }
     
@@ -242,23 +264,26 @@ public class AbaloneGame {
     public boolean makeMove(Hex targetPosition) {
         // First check if current selection is valid
         if (!isCurrentSelectionValid()) {
-            android.util.Log.d("AbaloneGame", "makeMove - REJECTED: Current selection is invalid");
+            if (GameLog.DEBUG) {
+                GameLog.d(TAG, "makeMove - REJECTED: Current selection is invalid");
+            }
             return false;
         }
         
         if (!validMoves.contains(targetPosition)) {
-            android.util.Log.d("AbaloneGame", "makeMove - REJECTED: Target not in valid moves");
+            if (GameLog.DEBUG) {
+                GameLog.d(TAG, "makeMove - REJECTED: Target not in valid moves");
+            }
             return false;
         }
         
         if (selectedMarbles.isEmpty()) {
-            android.util.Log.d("AbaloneGame", "makeMove - REJECTED: No marbles selected");
+            if (GameLog.DEBUG) {
+                GameLog.d(TAG, "makeMove - REJECTED: No marbles selected");
+            }
             return false;
         }
         
-        // Save current state before making the move
-        saveGameState();
-        
         // Save debug information before move
         saveDebugPreMoveState(targetPosition);
         
@@ -276,23 +301,70 @@ public class AbaloneGame {
         }
         
         if (selectedMove == null) {
-            android.util.Log.d("AbaloneGame", "makeMove - REJECTED: No matching validated move found");
+            if (GameLog.DEBUG) {
+                GameLog.d(TAG, "makeMove - REJECTED: No matching validated move found");
+            }
             return false;
         }
         
-        // Execute the validated move
-        MoveExecutor executor = new MoveExecutor(board, scores);
+        // Execute the validated move and record it for undo
         executor.executeMove(selectedMove, currentPlayer);
+        journal.record(PackedMove.of(selectedMove));
         
         // Increment move number and switch players
         currentMoveNumber++;
         currentPlayer = currentPlayer.getOpponent();
         clearSelection();
         
-        android.util.Log.d("AbaloneGame", "makeMove - SUCCESS: Move executed");
+        if (GameLog.DEBUG) {
+            GameLog.d(TAG, "makeMove - SUCCESS: Move executed");
+        }
         return true;
     }
     
+    /**
+     * Play a validated move in place for search. Updates cells, score and side to
+     * move only - selection, undo history and debug state are left untouched.
+     * The move must have been validated for the current position.
+     */
+    public void make(MoveValidator.ValidatedMove move) {
+        executor.executeMove(move, currentPlayer);
+        currentPlayer = currentPlayer.getOpponent();
+    }
+    
+    /**
+     * Take back a move played with {@link #make(MoveValidator.ValidatedMove)}, restoring cells, score and side to move
+     */
+    public void unmake(MoveValidator.ValidatedMove move) {
+        currentPlayer = currentPlayer.getOpponent();
+        executor.undoMove(move, currentPlayer);
+    }
+    
+    /**
+     * Play a packed move from {@link MoveGenerator} in place for search
+     */
+    public void make(int move) {
+        executor.executeMove(move, currentPlayer);
+        currentPlayer = currentPlayer.getOpponent();
+    }
+    
+    /**
+     * Take back a packed move played with {@link #make(int)}
+     */
+    public void unmake(int move) {
+        currentPlayer = currentPlayer.getOpponent();
+        executor.undoMove(move, currentPlayer);
+    }
+    
+    /**
+     * Pass the turn without moving, for null-move pruning in search. Calling it
+     * again restores the position.
+     */
+    void passTurn() {
+        board.toggleSideToMove();
+        currentPlayer = currentPlayer.getOpponent();
+    }
+    
     /**
      * Get the validated move information for a target position
      * This is used for animation purposes to get push information
@@ -327,7 +399,9 @@ public class AbaloneGame {
         
         // Check if the current selection is valid (forms a straight line)
         if (selectedMarbles.size() > 1 && !areMarblesStraightLine(selectedMarbles)) {
-            android.util.Log.d("AbaloneGame", "updateValidMoves - Selection is invalid (not straight line), no valid moves");
+            if (GameLog.DEBUG) {
+                GameLog.d(TAG, "updateValidMoves - Selection is invalid (not straight line), no valid moves");
+            }
             return; // Don't show any valid moves for invalid selections
         }
         
@@ -340,7 +414,9 @@ public class AbaloneGame {
             validMoves.add(move.targetPosition);
         }
         
-        android.util.Log.d("AbaloneGame", "updateValidMoves - Selection is valid, found " + validMoves.size() + " valid moves");
+        if (GameLog.DEBUG) {
+            GameLog.d(TAG, "updateValidMoves - Selection is valid, found " + validMoves.size() + " valid moves");
+        }
     }
     
     
@@ -349,42 +425,28 @@ public class AbaloneGame {
      * Check for winner
      */
     public Player checkWinner() {
-        if (scores.getOrDefault(Player.BLACK, 0) >= WINNING_SCORE) {
+        if (board.getScore(Player.BLACK) >= WINNING_SCORE) {
             return Player.BLACK;
         }
-        if (scores.getOrDefault(Player.WHITE, 0) >= WINNING_SCORE) {
+        if (board.getScore(Player.WHITE) >= WINNING_SCORE) {
             return Player.WHITE;
         }
         return null;
     }
     
-    /**
-     * Save current game state to undo history
-     */
-    private void saveGameState() {
-        GameSnapshot snapshot = new GameSnapshot(board, currentPlayer, scores, currentMoveNumber);
-        undoHistory.push(snapshot);
-        
-        // Limit undo history size
-        while (undoHistory.size() > MAX_UNDO_HISTORY) {
-            undoHistory.removeElementAt(0); // Remove oldest snapshot
-        }
-    }
-    
     /**
      * Undo the last move
      */
     public boolean undoLastMove() {
-        if (undoHistory.isEmpty()) {
+        int move = journal.undo();
+        if (move == PackedMove.NONE) {
             return false; // No move to undo
         }
         
-        // Restore previous state
-        GameSnapshot snapshot = undoHistory.pop();
-        board = snapshot.getBoard();
-        currentPlayer = snapshot.getCurrentPlayer();
-        scores = snapshot.getScores();
-        currentMoveNumber = snapshot.getMoveNumber();
+        // Take the move back on the board; only its cells and score change
+        currentPlayer = currentPlayer.getOpponent();
+        executor.undoMove(move, currentPlayer);
+        currentMoveNumber--;
         
         // Clear selection and valid moves
         clearSelection();
@@ -392,11 +454,28 @@ public class AbaloneGame {
         return true;
     }
     
+    /**
+     * Play the last undone move again
+     */
+    public boolean redoMove() {
+        int move = journal.redo();
+        if (move == PackedMove.NONE) {
+            return false; // No move to redo
+        }
+        
+        executor.executeMove(move, currentPlayer);
+        currentPlayer = currentPlayer.getOpponent();
+        currentMoveNumber++;
+        clearSelection();
+        
+        return true;
+    }
+    
     /**
      * Undo multiple moves
      */
     public boolean undoMoves(int count) {
-        if (count <= 0 || count > undoHistory.size()) {
+        if (count <= 0 || count > journal.undoCount()) {
             return false;
         }
         
@@ -413,14 +492,28 @@ public class AbaloneGame {
      * Check if undo is available
      */
     public boolean canUndo() {
-        return !undoHistory.isEmpty();
+        return journal.undoCount() > 0;
     }
     
     /**
      * Get number of moves that can be undone
      */
     public int getUndoCount() {
-        return undoHistory.size();
+        return journal.undoCount();
+    }
+    
+    /**
+     * Check if redo is available
+     */
+    public boolean canRedo() {
+        return journal.redoCount() > 0;
+    }
+    
+    /**
+     * Get number of undone moves that can be played again
+     */
+    public int getRedoCount() {
+        return journal.redoCount();
     }
     
     /**
@@ -434,7 +527,7 @@ public class AbaloneGame {
      * Save debug information before making a move
      */
     private void saveDebugPreMoveState(Hex targetPosition) {
-        preMoveBoardState = new HashMap<>(board);
+        preMoveBoardState = new BitBoard(board);
         debugSelectedMarbles = new ArrayList<>(selectedMarbles);
         debugTargetPosition = targetPosition;
         debugCurrentPlayer = currentPlayer;
@@ -449,11 +542,13 @@ public class AbaloneGame {
         }
         
         return new DebugMoveInfo(
-            new HashMap<>(preMoveBoardState),
-            new HashMap<>(board),
+            preMoveBoardState.toMap(),
+            board.toMap(),
             new ArrayList<>(debugSelectedMarbles),
             debugTargetPosition,
-            debugCurrentPlayer
+            debugCurrentPlayer,
+            PositionCodec.toText(preMoveBoardState, debugCurrentPlayer),
+            PositionCodec.toText(board, currentPlayer)
         );
     }
     
@@ -478,7 +573,7 @@ public class AbaloneGame {
      * Reset the game
      */
     public void resetGame() {
-        undoHistory.clear();
+        journal.clear();
         currentMoveNumber = 0;
         clearDebugInfo();
         initializeGame();
@@ -488,19 +583,50 @@ public class AbaloneGame {
      * Get all board positions
      */
     public Set<Hex> getAllPositions() {
-        return new HashSet<>(board.keySet());
+        return new HashSet<>(BitBoard.cells());
+    }
+    
+    /**
+     * 64-bit Zobrist hash of the cells, scores and side to move. Equal positions
+     * hash equally on every device, so it can serve as a cache, repetition or
+     * desync key.
+     */
+    public long positionHash() {
+        return board.hash();
+    }
+    
+    /**
+     * Replace the position with an arbitrary one, e.g. a test or analysis
+     * position. Selection and undo history are cleared and move numbers
+     * start again from 0.
+     */
+    void loadPosition(BitBoard position, Player sideToMove) {
+        board.copyFrom(position);
+        board.rehash(sideToMove);
+        currentPlayer = sideToMove;
+        selectedMarbles.clear();
+        validMoves.clear();
+        journal.clear();
+        currentMoveNumber = 0;
+    }
+    
+    /**
+     * Direct position access for the AI search
+     */
+    BitBoard board() {
+        return board;
     }
     
     /**
      * Copy constructor for AI
      */
     public AbaloneGame(AbaloneGame other) {
-        this.board = new HashMap<>(other.board);
+        this.board = new BitBoard(other.board);
+        this.executor = new MoveExecutor(board);
         this.currentPlayer = other.currentPlayer;
-        this.scores = new HashMap<>(other.scores);
         this.selectedMarbles = new ArrayList<>(other.selectedMarbles);
         this.validMoves = new HashSet<>(other.validMoves);
-        this.undoHistory = new Stack<>(); // Don't copy undo state for AI copies
+        this.journal = new MoveJournal(); // Don't copy undo state for AI copies
         this.currentMoveNumber = other.currentMoveNumber;
         this.preMoveBoardState = null; // Don't copy debug state for AI copies
         this.debugSelectedMarbles = new ArrayList<>();
@@ -0,0 +1,463 @@
+package io.celox.hexpulse.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact board position: one 64-bit occupancy mask per color over a fixed
+ * index of the 61 board cells, plus the marbles each player has pushed off.
+ *
+ * Cells are numbered 0..60 in the same order the board is created in
+ * (q from -4 to 4, then r from -4 to 4), so bit {@code i} of a mask is the
+ * cell {@code hexAt(i)}.
+ *
+ * The board also keeps a {@link Zobrist} hash of its cells and scores up to
+ * date on every change. The side-to-move key is folded in by whoever passes
+ * the turn, normally {@link MoveExecutor}. Likewise each player's
+ * {@link CellWeights} sums are updated as marbles are placed and removed,
+ * and so is a base-3 code for every line of cells along each axis (empty 0,
+ * black 1, white 2), which {@link Mobility} looks up in tables.
+ */
+public final class BitBoard {
+    public static final int RADIUS = 4;
+    public static final int CELL_COUNT = 61;
+    public static final long ALL_CELLS = (1L << CELL_COUNT) - 1;
+    /** Lines of cells along the three axes, 9 per axis */
+    public static final int LINE_COUNT = 3 * (2 * RADIUS + 1);
+    /** Cell index returned for positions off the board */
+    public static final int OFF_BOARD = -1;
+    /** Most cells from a cell to the board edge in one direction */
+    public static final int MAX_RAY = 2 * RADIUS;
+    
+    private static final int SIDE = 2 * RADIUS + 1;
+    private static final int[] INDEX = new int[SIDE * SIDE];
+    private static final int[] CELL_Q = new int[CELL_COUNT];
+    private static final int[] CELL_R = new int[CELL_COUNT];
+    private static final Hex[] CELL_HEX = new Hex[CELL_COUNT];
+    private static final int[] NEIGHBOR = new int[CELL_COUNT * 6];
+    private static final long[] NEIGHBOR_MASK = new long[CELL_COUNT];
+    private static final int[] RAY = new int[CELL_COUNT * 6 * MAX_RAY];
+    private static final int[] RAY_LENGTH = new int[CELL_COUNT * 6];
+    private static final int[] LINE = new int[3 * CELL_COUNT];
+    private static final int[] LINE_DIGIT = new int[3 * CELL_COUNT];
+    private static final int[] LINE_LENGTH = new int[LINE_COUNT];
+    private static final List<Hex> CELLS;
+    
+    static {
+        int index = 0;
+        for (int q = -RADIUS; q <= RADIUS; q++) {
+            for (int r = -RADIUS; r <= RADIUS; r++) {
+                int s = -q - r;
+                int slot = (q + RADIUS) * SIDE + (r + RADIUS);
+                if (s >= -RADIUS && s <= RADIUS) {
+                    INDEX[slot] = index;
+                    CELL_Q[index] = q;
+                    CELL_R[index] = r;
+                    CELL_HEX[index] = Hex.of(q, r);
+                    index++;
+                } else {
+                    INDEX[slot] = OFF_BOARD;
+                }
+            }
+        }
+        List<Hex> cells = new ArrayList<>(CELL_COUNT);
+        Collections.addAll(cells, CELL_HEX);
+        CELLS = Collections.unmodifiableList(cells);
+        
+        for (int i = 0; i < CELL_COUNT; i++) {
+            for (int dir = 0; dir < 6; dir++) {
+                int[] step = Hex.DIRECTIONS[dir];
+                int next = indexOf(CELL_Q[i] + step[0], CELL_R[i] + step[1]);
+                NEIGHBOR[i * 6 + dir] = next;
+                if (next >= 0) {
+                    NEIGHBOR_MASK[i] |= 1L << next;
+                }
+            }
+        }
+        
+        // Rays run from each cell's neighbour to the edge and are padded with OFF_BOARD
+        Arrays.fill(RAY, OFF_BOARD);
+        for (int i = 0; i < CELL_COUNT * 6; i++) {
+            for (int cell = NEIGHBOR[i]; cell >= 0; cell = neighbor(cell, i % 6)) {
+                RAY[i * MAX_RAY + RAY_LENGTH[i]++] = cell;
+            }
+        }
+        
+        // Each line starts at a cell with no neighbour behind it on the axis
+        int line = 0;
+        for (int axis = 0; axis < 3; axis++) {
+            for (int i = 0; i < CELL_COUNT; i++) {
+                if (neighbor(i, axis + 3) >= 0) {
+                    continue;
+                }
+                int digit = 1;
+                for (int cell = i; cell >= 0; cell = neighbor(cell, axis)) {
+                    LINE[axis * CELL_COUNT + cell] = line;
+                    LINE_DIGIT[axis * CELL_COUNT + cell] = digit;
+                    digit *= 3;
+                    LINE_LENGTH[line]++;
+                }
+                line++;
+            }
+        }
+    }
+    
+    private long black;
+    private long white;
+    private int blackScore;
+    private int whiteScore;
+    private long hash;
+    private int blackCenter;
+    private int whiteCenter;
+    private int blackEdge;
+    private int whiteEdge;
+    private final int[] lines = new int[LINE_COUNT];
+    
+    public BitBoard() {
+    }
+    
+    public BitBoard(BitBoard other) {
+        copyFrom(other);
+    }
+    
+    /**
+     * Get the cell index for axial coordinates, or -1 if off board
+     */
+    public static int indexOf(int q, int r) {
+        if (q < -RADIUS || q > RADIUS || r < -RADIUS || r > RADIUS) {
+            return -1;
+        }
+        return INDEX[(q + RADIUS) * SIDE + (r + RADIUS)];
+    }
+    
+    /**
+     * Get the cell index for a position, or -1 if off board
+     */
+    public static int indexOf(Hex position) {
+        // Shared instances carry the cell index; the ring around the board comes after it
+        int index = position.index();
+        return index < CELL_COUNT ? index : OFF_BOARD;
+    }
+    
+    /**
+     * Index of the neighbouring cell in a direction (0-5), or -1 if off board
+     */
+    public static int neighbor(int index, int direction) {
+        return NEIGHBOR[index * 6 + direction];
+    }
+    
+    /**
+     * Cell a number of steps (1 to {@link #MAX_RAY}) away in a direction, or
+     * -1 once the ray has left the board
+     */
+    public static int ray(int index, int direction, int steps) {
+        return RAY[(index * 6 + direction) * MAX_RAY + steps - 1];
+    }
+    
+    /**
+     * Number of on-board cells beyond a cell in a direction (0-8)
+     */
+    public static int rayLength(int index, int direction) {
+        return RAY_LENGTH[index * 6 + direction];
+    }
+    
+    /**
+     * Last cell of the run of cells in a mask that starts at a cell and goes in a direction
+     */
+    static int runEnd(long cells, int index, int direction) {
+        for (int next = neighbor(index, direction); next >= 0 && (cells & 1L << next) != 0;
+             next = neighbor(next, direction)) {
+            index = next;
+        }
+        return index;
+    }
+    
+    /**
+     * Mask of the on-board cells adjacent to a cell index
+     */
+    public static long neighborMask(int index) {
+        return NEIGHBOR_MASK[index];
+    }
+    
+    /**
+     * Number of cells on a line (5-9)
+     */
+    public static int lineLength(int line) {
+        return LINE_LENGTH[line];
+    }
+    
+    /**
+     * Hex distance between two cell indices
+     */
+    public static int distance(int a, int b) {
+        int dq = CELL_Q[a] - CELL_Q[b];
+        int dr = CELL_R[a] - CELL_R[b];
+        return (Math.abs(dq) + Math.abs(dq + dr) + Math.abs(dr)) / 2;
+    }
+    
+    /**
+     * Get the position of a cell index
+     */
+    public static Hex hexAt(int index) {
+        return CELL_HEX[index];
+    }
+    
+    public static int q(int index) {
+        return CELL_Q[index];
+    }
+    
+    public static int r(int index) {
+        return CELL_R[index];
+    }
+    
+    /**
+     * All board cells in index order
+     */
+    public static List<Hex> cells() {
+        return CELLS;
+    }
+    
+    /**
+     * Copy cells and scores from another board
+     */
+    public void copyFrom(BitBoard other) {
+        black = other.black;
+        white = other.white;
+        blackScore = other.blackScore;
+        whiteScore = other.whiteScore;
+        hash = other.hash;
+        blackCenter = other.blackCenter;
+        whiteCenter = other.whiteCenter;
+        blackEdge = other.blackEdge;
+        whiteEdge = other.whiteEdge;
+        System.arraycopy(other.lines, 0, lines, 0, LINE_COUNT);
+    }
+    
+    /**
+     * Remove all marbles and reset scores
+     */
+    public void clear() {
+        black = 0L;
+        white = 0L;
+        blackScore = 0;
+        whiteScore = 0;
+        hash = 0L;
+        blackCenter = 0;
+        whiteCenter = 0;
+        blackEdge = 0;
+        whiteEdge = 0;
+        Arrays.fill(lines, 0);
+    }
+    
+    /**
+     * Get player at cell index
+     */
+    public Player get(int index) {
+        long bit = 1L << index;
+        if ((black & bit) != 0) return Player.BLACK;
+        if ((white & bit) != 0) return Player.WHITE;
+        return Player.EMPTY;
+    }
+    
+    /**
+     * Get player at position, EMPTY for off-board positions
+     */
+    public Player get(Hex position) {
+        int index = indexOf(position);
+        return index < 0 ? Player.EMPTY : get(index);
+    }
+    
+    /**
+     * Put a player (or EMPTY) on a cell index
+     */
+    public void set(int index, Player player) {
+        long bit = 1L << index;
+        int digit = lineDigit(player);
+        if ((black & bit) != 0) {
+            digit -= 1;
+            hash ^= Zobrist.cell(Player.BLACK, index);
+            blackCenter -= CellWeights.center(index);
+            blackEdge -= CellWeights.edge(index);
+        } else if ((white & bit) != 0) {
+            digit -= 2;
+            hash ^= Zobrist.cell(Player.WHITE, index);
+            whiteCenter -= CellWeights.center(index);
+            whiteEdge -= CellWeights.edge(index);
+        }
+        black &= ~bit;
+        white &= ~bit;
+        if (player == Player.BLACK) {
+            black |= bit;
+            blackCenter += CellWeights.center(index);
+            blackEdge += CellWeights.edge(index);
+        } else if (player == Player.WHITE) {
+            white |= bit;
+            whiteCenter += CellWeights.center(index);
+            whiteEdge += CellWeights.edge(index);
+        }
+        hash ^= Zobrist.cell(player, index);
+        if (digit != 0) {
+            for (int axis = 0; axis < 3; axis++) {
+                int slot = axis * CELL_COUNT + index;
+                lines[LINE[slot]] += digit * LINE_DIGIT[slot];
+            }
+        }
+    }
+    
+    private static int lineDigit(Player player) {
+        return player == Player.BLACK ? 1 : player == Player.WHITE ? 2 : 0;
+    }
+    
+    /**
+     * Put a player (or EMPTY) on a board position
+     *
+     * @throws IllegalArgumentException for a position off the board
+     */
+    public void set(Hex position, Player player) {
+        int index = indexOf(position);
+        if (index < 0) {
+            throw new IllegalArgumentException("Not a board cell: " + position);
+        }
+        set(index, player);
+    }
+    
+    /**
+     * Occupancy mask of a player
+     */
+    public long mask(Player player) {
+        switch (player) {
+            case BLACK:
+                return black;
+            case WHITE:
+                return white;
+            default:
+                return ALL_CELLS & ~(black | white);
+        }
+    }
+    
+    public long occupied() {
+        return black | white;
+    }
+    
+    /**
+     * Number of marbles a player has on the board
+     */
+    public int count(Player player) {
+        return Long.bitCount(mask(player));
+    }
+    
+    /**
+     * Number of a player's marbles on {@link CellWeights#center} cells
+     */
+    public int centerCount(Player player) {
+        switch (player) {
+            case BLACK:
+                return blackCenter;
+            case WHITE:
+                return whiteCenter;
+            default:
+                return 0;
+        }
+    }
+    
+    /**
+     * Sum of {@link CellWeights#edge} penalties over a player's marbles
+     */
+    public int edgeExposure(Player player) {
+        switch (player) {
+            case BLACK:
+                return blackEdge;
+            case WHITE:
+                return whiteEdge;
+            default:
+                return 0;
+        }
+    }
+    
+    /**
+     * Base-3 code of a line: digit k is the k-th cell along the axis, 0 empty, 1 black, 2 white
+     */
+    public int lineCode(int line) {
+        return lines[line];
+    }
+    
+    /**
+     * Number of opponent marbles a player has pushed off
+     */
+    public int getScore(Player player) {
+        switch (player) {
+            case BLACK:
+                return blackScore;
+            case WHITE:
+                return whiteScore;
+            default:
+                return 0;
+        }
+    }
+    
+    public void addScore(Player player, int delta) {
+        if (player == Player.BLACK) {
+            hash ^= Zobrist.score(player, blackScore);
+            blackScore += delta;
+            hash ^= Zobrist.score(player, blackScore);
+        } else if (player == Player.WHITE) {
+            hash ^= Zobrist.score(player, whiteScore);
+            whiteScore += delta;
+            hash ^= Zobrist.score(player, whiteScore);
+        }
+    }
+    
+    /**
+     * Incrementally maintained {@link Zobrist} hash of this position
+     */
+    public long hash() {
+        return hash;
+    }
+    
+    /**
+     * Recompute the hash from scratch, e.g. after setting up a position cell by cell
+     */
+    void rehash(Player sideToMove) {
+        hash = Zobrist.hash(this, sideToMove);
+    }
+    
+    /**
+     * Fold the side-to-move key in or out of the hash when the turn passes
+     */
+    public void toggleSideToMove() {
+        hash ^= Zobrist.SIDE_TO_MOVE;
+    }
+    
+    /**
+     * Expanded view of the board for debugging and logging
+     */
+    public Map<Hex, Player> toMap() {
+        Map<Hex, Player> map = new HashMap<>();
+        for (int i = 0; i < CELL_COUNT; i++) {
+            map.put(CELL_HEX[i], get(i));
+        }
+        return map;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        BitBoard other = (BitBoard) obj;
+        return black == other.black && white == other.white
+            && blackScore == other.blackScore && whiteScore == other.whiteScore;
+    }
+    
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(black);
+        result = 31 * result + Long.hashCode(white);
+        result = 31 * result + blackScore;
+        result = 31 * result + whiteScore;
+        return result;
+    }
+}
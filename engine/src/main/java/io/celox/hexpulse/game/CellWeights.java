@@ -0,0 +1,54 @@
+package io.celox.hexpulse.game;
+
+/**
+ * Per-cell weights for the evaluation terms that only depend on where a
+ * marble stands. {@link BitBoard} keeps a running sum of them per player, so
+ * the evaluation reads the totals instead of scanning the board.
+ */
+public final class CellWeights {
+    /** Number of cells counted as center */
+    public static final int CENTER_CELLS = 15;
+    
+    private static final int[] CENTER = new int[BitBoard.CELL_COUNT];
+    private static final int[] EDGE = new int[BitBoard.CELL_COUNT];
+    
+    static {
+        int[][] center = {
+            {0, 0}, {1, 0}, {-1, 0},
+            {0, 1}, {0, -1}, {1, -1}, {-1, 1},
+            {2, 0}, {-2, 0}, {0, 2}, {0, -2},
+            {1, 1}, {-1, -1}, {2, -1}, {-2, 1}
+        };
+        for (int[] cell : center) {
+            CENTER[BitBoard.indexOf(cell[0], cell[1])] = 1;
+        }
+        
+        for (int i = 0; i < BitBoard.CELL_COUNT; i++) {
+            int q = BitBoard.q(i);
+            int r = BitBoard.r(i);
+            int edgeDistance = Math.min(Math.min(4 + q + r, 4 - q), 4 - r);
+            if (edgeDistance <= 1) {
+                EDGE[i] = 3; // High penalty for edge marbles
+            } else if (edgeDistance <= 2) {
+                EDGE[i] = 1; // Lower penalty for near-edge marbles
+            }
+        }
+    }
+    
+    private CellWeights() {
+    }
+    
+    /**
+     * 1 if the cell belongs to the extended center, else 0
+     */
+    public static int center(int index) {
+        return CENTER[index];
+    }
+    
+    /**
+     * Penalty for a marble on this cell being close to the edge
+     */
+    public static int edge(int index) {
+        return EDGE[index];
+    }
+}
@@ -12,14 +12,19 @@ public class DebugMoveInfo {
     private final List<Hex> selectedMarbles;
     private final Hex targetPosition;
     private final Player currentPlayer;
+    private final String beforeCode;
+    private final String afterCode;
     
     public DebugMoveInfo(Map<Hex, Player> beforeState, Map<Hex, Player> afterState,
-                        List<Hex> selectedMarbles, Hex targetPosition, Player currentPlayer) {
+                        List<Hex> selectedMarbles, Hex targetPosition, Player currentPlayer,
+                        String beforeCode, String afterCode) {
         this.beforeState = beforeState;
         this.afterState = afterState;
         this.selectedMarbles = selectedMarbles;
         this.targetPosition = targetPosition;
         this.currentPlayer = currentPlayer;
+        this.beforeCode = beforeCode;
+        this.afterCode = afterCode;
     }
     
     public Map<Hex, Player> getBeforeState() {
@@ -41,4 +46,18 @@ public class DebugMoveInfo {
     public Player getCurrentPlayer() {
         return currentPlayer;
     }
+    
+    /**
+     * {@link PositionCodec} text of the position before the move, loadable as a test fixture
+     */
+    public String getBeforeCode() {
+        return beforeCode;
+    }
+    
+    /**
+     * {@link PositionCodec} text of the position after the move
+     */
+    public String getAfterCode() {
+        return afterCode;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package io.celox.hexpulse.game;
+
+/**
+ * Logging facade for the game engine.
+ *
+ * Call sites guard every message with the compile-time constant {@link #DEBUG}:
+ * <pre>
+ *     if (GameLog.DEBUG) {
+ *         GameLog.d(TAG, "selected " + position);
+ *     }
+ * </pre>
+ * While it is false the compiler drops the whole block, string building
+ * included, so the rules and AI hot paths pay nothing for logging. Flip it to
+ * true for a debugging session. Messages go to the installed {@link Sink};
+ * the app routes them to logcat, and plain JVM runs print to standard out.
+ */
+public final class GameLog {
+    /** Compile-time switch for engine debug logging */
+    public static final boolean DEBUG = false;
+    
+    /**
+     * Destination for engine log messages
+     */
+    public interface Sink {
+        void debug(String tag, String message);
+    }
+    
+    private static volatile Sink sink = (tag, message) -> System.out.println(tag + ": " + message);
+    
+    private GameLog() {
+    }
+    
+    /**
+     * Route engine log messages, e.g. to android.util.Log
+     */
+    public static void setSink(Sink newSink) {
+        sink = newSink;
+    }
+    
+    public static void d(String tag, String message) {
+        Sink current = sink;
+        if (current != null) {
+            current.debug(tag, message);
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package io.celox.hexpulse.game;
 
-import java.util.Objects;
-
 /**
- * Represents a position on the hexagonal board using axial coordinates
+ * Represents a position on the hexagonal board using axial coordinates.
+ *
+ * Instances come from {@link #of}, which hands out one shared instance for
+ * each of the 61 board cells and the ring of 30 cells around them, so moving
+ * around the board does not allocate. Board cells are indexed 0..60 in the
+ * same order as {@link BitBoard}, the ring follows as 61..90.
  */
-public class Hex {
+public final class Hex {
     public final int q;
     public final int r;
+    private final int index;
+    private final int hash;
     
     // Direction vectors for hexagonal movement
     public static final int[][] DIRECTIONS = {
@@ -15,9 +20,67 @@ public class Hex {
         {-1, 0}, {-1, 1}, {0, 1}
     };
     
-    public Hex(int q, int r) {
+    /** Number of shared instances: the board and the off-board ring around it */
+    public static final int INTERNED_COUNT = 91;
+    
+    private static final int BOARD_RADIUS = 4;
+    private static final int INTERNED_RADIUS = BOARD_RADIUS + 1;
+    private static final int SIDE = 2 * INTERNED_RADIUS + 1;
+    private static final Hex[] BY_SLOT = new Hex[SIDE * SIDE];
+    private static final Hex[] BY_INDEX = new Hex[INTERNED_COUNT];
+    
+    static {
+        // Board cells first, then the ring, each in q-major order
+        int index = 0;
+        for (int radius = BOARD_RADIUS; radius <= INTERNED_RADIUS; radius++) {
+            for (int q = -INTERNED_RADIUS; q <= INTERNED_RADIUS; q++) {
+                for (int r = -INTERNED_RADIUS; r <= INTERNED_RADIUS; r++) {
+                    int distance = (Math.abs(q) + Math.abs(r) + Math.abs(-q - r)) / 2;
+                    boolean inBand = radius == BOARD_RADIUS ? distance <= BOARD_RADIUS : distance == INTERNED_RADIUS;
+                    if (inBand) {
+                        Hex hex = new Hex(q, r, index);
+                        BY_SLOT[(q + INTERNED_RADIUS) * SIDE + (r + INTERNED_RADIUS)] = hex;
+                        BY_INDEX[index++] = hex;
+                    }
+                }
+            }
+        }
+    }
+    
+    private Hex(int q, int r, int index) {
         this.q = q;
         this.r = r;
+        this.index = index;
+        this.hash = 31 * (31 + q) + r;
+    }
+    
+    /**
+     * Get the position at axial coordinates; shared for the board and the ring
+     * around it, a new instance further out
+     */
+    public static Hex of(int q, int r) {
+        if (q >= -INTERNED_RADIUS && q <= INTERNED_RADIUS && r >= -INTERNED_RADIUS && r <= INTERNED_RADIUS) {
+            Hex hex = BY_SLOT[(q + INTERNED_RADIUS) * SIDE + (r + INTERNED_RADIUS)];
+            if (hex != null) {
+                return hex;
+            }
+        }
+        return new Hex(q, r, -1);
+    }
+    
+    /**
+     * Get the shared position with a dense index (0 to {@link #INTERNED_COUNT} - 1)
+     */
+    public static Hex ofIndex(int index) {
+        return BY_INDEX[index];
+    }
+    
+    /**
+     * Dense index: the {@link BitBoard} cell index on the board, 61..90 on the
+     * ring around it, -1 further out
+     */
+    public int index() {
+        return index;
     }
     
     @Override
@@ -30,7 +93,7 @@ public class Hex {
     
     @Override
     public int hashCode() {
-        return Objects.hash(q, r);
+        return hash;
     }
     
     @Override
@@ -53,7 +116,7 @@ public class Hex {
                 if (parts.length == 2) {
                     int q = Integer.parseInt(parts[0].trim());
                     int r = Integer.parseInt(parts[1].trim());
-                    return new Hex(q, r);
+                    return Hex.of(q, r);
                 }
             }
         } catch (NumberFormatException e) {
@@ -74,21 +137,21 @@ public class Hex {
      */
     public Hex neighbor(int direction) {
         int[] dir = DIRECTIONS[direction];
-        return new Hex(q + dir[0], r + dir[1]);
+        return Hex.of(q + dir[0], r + dir[1]);
     }
     
     /**
      * Add two hex coordinates
      */
     public Hex add(Hex other) {
-        return new Hex(q + other.q, r + other.r);
+        return Hex.of(q + other.q, r + other.r);
     }
     
     /**
      * Subtract hex coordinates
      */
     public Hex subtract(Hex other) {
-        return new Hex(q - other.q, r - other.r);
+        return Hex.of(q - other.q, r - other.r);
     }
     
     /**
@@ -132,6 +195,6 @@ public class Hex {
             rr = -rq - rs;
         }
         
-        return new Hex(rq, rr);
+        return Hex.of(rq, rr);
     }
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+package io.celox.hexpulse.game;
+
+/**
+ * Mobility and threat terms for the evaluation, read from lookup tables
+ * instead of generating and playing moves. The move count equals what
+ * {@link MoveGenerator} produces at a fraction of the cost.
+ *
+ * Every single, inline and sumito move runs along one of the 27 board lines,
+ * so a table indexed by the line's base-3 code ({@link BitBoard#lineCode})
+ * gives their number and the number of ejecting sumitos directly. Broadside
+ * moves span two lines; they are counted by testing precomputed masks of the
+ * target cells of each own pair and triple against the empty cells.
+ */
+public final class Mobility {
+    private static final int MAX_LINE = 2 * BitBoard.RADIUS + 1;
+    private static final int[] OFFSET = new int[MAX_LINE + 1];
+    
+    /** Per line code and player: moves along the line | ejections << 16 */
+    private static final int[] TABLE;
+    
+    /** Never set in a board mask, marks cells off the board in the masks below */
+    private static final long OFF_BOARD = 1L << 63;
+    
+    /** Cells of the pair and triple starting at a cell along an axis */
+    private static final long[] PAIR_CELLS = new long[BitBoard.CELL_COUNT * 3];
+    private static final long[] TRIPLE_CELLS = new long[BitBoard.CELL_COUNT * 3];
+    
+    /** Target cells of that pair and triple moving sideways in each of 4 directions */
+    private static final long[] PAIR_TARGETS = new long[BitBoard.CELL_COUNT * 3 * 4];
+    private static final long[] TRIPLE_TARGETS = new long[BitBoard.CELL_COUNT * 3 * 4];
+    
+    static {
+        int size = 0;
+        for (int length = 1; length <= MAX_LINE; length++) {
+            OFFSET[length] = size;
+            size += 2 * pow3(length);
+        }
+        TABLE = new int[size];
+        int[] cells = new int[MAX_LINE];
+        for (int length = 1; length <= MAX_LINE; length++) {
+            for (int code = 0; code < pow3(length); code++) {
+                for (int i = 0, rest = code; i < length; i++, rest /= 3) {
+                    cells[i] = rest % 3;
+                }
+                TABLE[OFFSET[length] + 2 * code] = linePattern(cells, length, 1);
+                TABLE[OFFSET[length] + 2 * code + 1] = linePattern(cells, length, 2);
+            }
+        }
+        
+        for (int cell = 0; cell < BitBoard.CELL_COUNT; cell++) {
+            for (int axis = 0; axis < 3; axis++) {
+                int line = cell * 3 + axis;
+                int second = BitBoard.neighbor(cell, axis);
+                int third = second < 0 ? -1 : BitBoard.neighbor(second, axis);
+                PAIR_CELLS[line] = cells(cell, second);
+                TRIPLE_CELLS[line] = cells(cell, second, third);
+                for (int side = 0; side < 4; side++) {
+                    int dir = sideways(axis, side);
+                    PAIR_TARGETS[line * 4 + side] = cells(step(cell, dir), step(second, dir));
+                    TRIPLE_TARGETS[line * 4 + side] = cells(step(cell, dir), step(second, dir), step(third, dir));
+                }
+            }
+        }
+    }
+    
+    private Mobility() {
+    }
+    
+    /**
+     * Number of legal moves for a player
+     */
+    public static int count(BitBoard board, Player player) {
+        int side = player == Player.WHITE ? 1 : 0;
+        int moves = 0;
+        for (int line = 0; line < BitBoard.LINE_COUNT; line++) {
+            moves += TABLE[OFFSET[BitBoard.lineLength(line)] + 2 * board.lineCode(line) + side] & 0xFFFF;
+        }
+        
+        long own = board.mask(player);
+        long empty = BitBoard.ALL_CELLS & ~board.occupied();
+        for (long bits = own; bits != 0; bits &= bits - 1) {
+            int cell = Long.numberOfTrailingZeros(bits);
+            for (int axis = 0; axis < 3; axis++) {
+                int line = cell * 3 + axis;
+                if ((own & PAIR_CELLS[line]) != PAIR_CELLS[line]) {
+                    continue;
+                }
+                boolean triple = (own & TRIPLE_CELLS[line]) == TRIPLE_CELLS[line];
+                for (int i = line * 4; i < line * 4 + 4; i++) {
+                    if ((empty & PAIR_TARGETS[i]) == PAIR_TARGETS[i]) {
+                        moves++;
+                        if (triple && (empty & TRIPLE_TARGETS[i]) == TRIPLE_TARGETS[i]) {
+                            moves++;
+                        }
+                    }
+                }
+            }
+        }
+        return moves;
+    }
+    
+    /**
+     * Number of sumitos available to a player that push an opponent marble off the board
+     */
+    public static int ejectionThreats(BitBoard board, Player player) {
+        int side = player == Player.WHITE ? 1 : 0;
+        int threats = 0;
+        for (int line = 0; line < BitBoard.LINE_COUNT; line++) {
+            threats += TABLE[OFFSET[BitBoard.lineLength(line)] + 2 * board.lineCode(line) + side] >>> 16;
+        }
+        return threats;
+    }
+    
+    /**
+     * Count the moves along a line of cells (0 empty, 1 black, 2 white) for one color
+     */
+    private static int linePattern(int[] cells, int length, int own) {
+        int moves = 0;
+        int ejections = 0;
+        for (int i = 0; i < length; i++) {
+            if (cells[i] != own) {
+                continue;
+            }
+            // The marble at i leads a line of 1-3 own marbles in each direction
+            for (int step = -1; step <= 1; step += 2) {
+                int ahead = i + step;
+                if (!inside(ahead, length) || cells[ahead] == own) {
+                    continue;
+                }
+                int line = 1;
+                while (line < 3 && inside(i - step * line, length) && cells[i - step * line] == own) {
+                    line++;
+                }
+                if (cells[ahead] == 0) {
+                    moves += line;
+                    continue;
+                }
+                int pushed = 0;
+                int beyond = ahead;
+                while (inside(beyond, length) && cells[beyond] != 0 && cells[beyond] != own) {
+                    pushed++;
+                    beyond += step;
+                }
+                if (pushed < line && (!inside(beyond, length) || cells[beyond] == 0)) {
+                    moves += line - pushed;
+                    if (!inside(beyond, length)) {
+                        ejections += line - pushed;
+                    }
+                }
+            }
+        }
+        return moves | ejections << 16;
+    }
+    
+    /**
+     * The four directions that are not along an axis, numbered 0-3
+     */
+    private static int sideways(int axis, int side) {
+        int dir = axis + 1 + side;
+        return (dir >= axis + 3 ? dir + 1 : dir) % 6;
+    }
+    
+    private static int step(int cell, int dir) {
+        return cell < 0 ? -1 : BitBoard.neighbor(cell, dir);
+    }
+    
+    /**
+     * Mask of the given cells, with {@link #OFF_BOARD} set if any is off the board
+     */
+    private static long cells(int... cells) {
+        long mask = 0;
+        for (int cell : cells) {
+            mask |= cell < 0 ? OFF_BOARD : 1L << cell;
+        }
+        return mask;
+    }
+    
+    private static boolean inside(int i, int length) {
+        return i >= 0 && i < length;
+    }
+    
+    private static int pow3(int n) {
+        int result = 1;
+        for (int i = 0; i < n; i++) {
+            result *= 3;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,403 @@
+package io.celox.hexpulse.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Monte Carlo tree search backend: PUCT selection guided by move priors,
+ * short playouts scored by the static evaluation, and tree parallelism with
+ * virtual loss.
+ *
+ * The tree lives in a pool of preallocated arrays reused by every search,
+ * one slot per node; the children of a node take a contiguous block of
+ * slots. All threads descend the same tree, each adding a virtual loss to
+ * the nodes on its path so the others spread over different lines until
+ * the result is backed up. Descents and playouts only make and unmake moves
+ * on the thread's own position with its context's buffers, so playouts
+ * allocate nothing. Once the pool is full the tree stops growing and the
+ * remaining time goes into playouts from its leaves.
+ */
+final class MonteCarloSearch implements SearchEngine {
+    /** Bytes per node over all pool arrays, for sizing the pool from a memory budget */
+    static final int NODE_BYTES = 28;
+    
+    /** Random moves played past a leaf before the position is evaluated */
+    private static final int PLAYOUT_PLIES = 2;
+    /** Deepest tree node, leaving context buffers for the playout below it */
+    private static final int MAX_TREE_PLY = AbaloneAI.MAX_PLY - PLAYOUT_PLIES - 1;
+    /** Visits a leaf needs before it gets children, to keep the tree within the pool */
+    private static final int EXPAND_VISITS = 2;
+    private static final float EXPLORATION = 1.5f;
+    /** Value of an unvisited child below its parent's, so tried moves keep their lead */
+    private static final float FIRST_PLAY_REDUCTION = 0.2f;
+    /** Evaluation score that counts as a value of tanh(1), about one marble ahead */
+    private static final double EVALUATION_SCALE = 2000.0;
+    /** Fixed-point unit of the summed values, which are updated atomically */
+    private static final long VALUE_ONE = 1 << 16;
+    /** First child of a node another thread is expanding */
+    private static final int EXPANDING = -1;
+    private static final long REPORT_MILLIS = 250;
+    
+    private final AbaloneAI ai;
+    private final ExecutorService helperPool;
+    private final int capacity;
+    
+    /** Move leading to each node */
+    private final int[] moves;
+    /** Prior probability of each node's move among its siblings */
+    private final float[] priors;
+    private final int[] childCounts;
+    /** First child of each node; 0 until expanded, as the root is never a child */
+    private final AtomicIntegerArray firstChild;
+    /** Visits of each node, including virtual losses still in flight */
+    private final AtomicIntegerArray visits;
+    /** Summed values of each node for the side that played its move */
+    private final AtomicLongArray values;
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile boolean full;
+    
+    /**
+     * @param ai supplies the static evaluation
+     * @param helperPool runs the helper threads; may be null for single-threaded searches
+     * @param capacity number of tree nodes to preallocate
+     */
+    MonteCarloSearch(AbaloneAI ai, ExecutorService helperPool, int capacity) {
+        this.ai = ai;
+        this.helperPool = helperPool;
+        this.capacity = Math.max(capacity, MoveGenerator.MAX_MOVES + 1);
+        moves = new int[this.capacity];
+        priors = new float[this.capacity];
+        childCounts = new int[this.capacity];
+        firstChild = new AtomicIntegerArray(this.capacity);
+        visits = new AtomicIntegerArray(this.capacity);
+        values = new AtomicLongArray(this.capacity);
+    }
+    
+    /**
+     * Number of tree nodes in use after the last search
+     */
+    int treeSize() {
+        return Math.min(size.get(), capacity);
+    }
+    
+    @Override
+    public int search(AbaloneAI.SearchContext ctx, int moveCount, Player player, long timeLimit, int threads) {
+        long startTime = System.currentTimeMillis();
+        long deadline = startTime + (long) (timeLimit * 0.95);
+        
+        size.set(1);
+        full = false;
+        firstChild.set(0, 0);
+        visits.set(0, 0);
+        values.set(0, 0);
+        expand(0, ctx.moves[0], moveCount, ctx.scores[0]);
+        
+        // Helpers get their own copies of the position but share the tree
+        Worker[] helpers = new Worker[threads - 1];
+        List<Future<?>> running = new ArrayList<>();
+        for (int t = 0; t < helpers.length; t++) {
+            Worker helper = new Worker(new AbaloneAI.SearchContext(ctx.position, ctx.stop), startTime + t + 1);
+            helpers[t] = helper;
+            running.add(helperPool.submit(() -> helper.run(startTime, deadline, null)));
+        }
+        
+        Worker main = new Worker(ctx, startTime);
+        main.run(startTime, deadline, helpers);
+        ctx.stop.set(true);
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // A failed helper only costs its share of the playouts
+            }
+        }
+        
+        for (Worker helper : helpers) {
+            ctx.nodes += helper.ctx.nodes;
+        }
+        ctx.previousPvLength = principalVariation(ctx.previousPv);
+        ctx.completedDepth = ctx.previousPvLength;
+        int best = mostVisitedChild(0);
+        ctx.bestMove = best > 0 ? moves[best] : ctx.moves[0][0];
+        ctx.bestScore = best > 0 ? toScore(meanValue(best)) : 0;
+        return ctx.bestMove;
+    }
+    
+    /**
+     * One search thread: descends the shared tree from the root, plays out
+     * the leaf and backs the result up, until the deadline or stop signal
+     */
+    private final class Worker {
+        final AbaloneAI.SearchContext ctx;
+        /** Nodes on the current path, root first */
+        final int[] path = new int[AbaloneAI.MAX_PLY];
+        long random;
+        
+        Worker(AbaloneAI.SearchContext ctx, long seed) {
+            this.ctx = ctx;
+            // xorshift needs a nonzero state
+            this.random = seed * 0x9E3779B97F4A7C15L | 1L;
+        }
+        
+        /**
+         * @param helpers the other workers, whose playouts the main worker counts in its progress reports;
+         *                null for helpers, which do not report
+         */
+        void run(long startTime, long deadline, Worker[] helpers) {
+            long nextReport = System.currentTimeMillis() + REPORT_MILLIS;
+            while (!ctx.stop.get()) {
+                if ((ctx.nodes & 15) == 0) {
+                    long now = System.currentTimeMillis();
+                    if (now >= deadline) {
+                        break;
+                    }
+                    if (helpers != null && ctx.handle != null && now >= nextReport) {
+                        nextReport = now + REPORT_MILLIS;
+                        report(helpers, now - startTime);
+                    }
+                }
+                iterate();
+                ctx.nodes++;
+            }
+        }
+        
+        private void iterate() {
+            AbaloneGame game = ctx.position;
+            int node = 0;
+            int ply = 0;
+            path[0] = 0;
+            Player winner = null;
+            
+            // Selection, with a virtual loss on each node taken
+            int first;
+            while (ply < MAX_TREE_PLY && (first = firstChild.get(node)) > 0) {
+                node = select(node, first);
+                visits.getAndIncrement(node);
+                values.getAndAdd(node, -VALUE_ONE);
+                game.make(moves[node]);
+                path[++ply] = node;
+                if ((winner = game.checkWinner()) != null) {
+                    break;
+                }
+            }
+            
+            // Value for the side to move at the leaf
+            double value;
+            if (winner != null) {
+                value = -1.0; // The side that just moved has won
+            } else {
+                if (ply < MAX_TREE_PLY && !full && visits.get(node) >= EXPAND_VISITS
+                        && firstChild.compareAndSet(node, 0, EXPANDING)) {
+                    int[] generated = ctx.moves[ply];
+                    int count = MoveGenerator.generate(game.board(), game.getCurrentPlayer(), generated);
+                    expand(node, generated, count, ctx.scores[ply]);
+                }
+                value = playout(ply);
+            }
+            
+            // Back up, taking the virtual losses off again
+            for (int i = ply; i > 0; i--) {
+                int taken = path[i];
+                value = -value;
+                values.getAndAdd(taken, (long) (value * VALUE_ONE) + VALUE_ONE);
+                game.unmake(moves[taken]);
+            }
+            visits.getAndIncrement(0);
+        }
+        
+        /**
+         * Play random moves from the leaf, always taking an ejection when one
+         * is on offer, and evaluate where they end
+         *
+         * @return value for the side to move at the leaf
+         */
+        private double playout(int ply) {
+            AbaloneGame game = ctx.position;
+            int depth = ply;
+            Player winner = null;
+            while (depth < ply + PLAYOUT_PLIES && winner == null) {
+                int[] generated = ctx.moves[depth];
+                int count = MoveGenerator.generate(game.board(), game.getCurrentPlayer(), generated);
+                if (count == 0) {
+                    break;
+                }
+                int move = generated[nextInt(count)];
+                for (int i = 0; i < count; i++) {
+                    if (PackedMove.ejects(generated[i])) {
+                        move = generated[i];
+                        break;
+                    }
+                }
+                game.make(move);
+                ctx.played[depth++] = move;
+                winner = game.checkWinner();
+            }
+            
+            Player side = game.getCurrentPlayer();
+            double value = winner != null ? (winner == side ? 1.0 : -1.0)
+                : Math.tanh(ai.evaluatePosition(ctx, side) / EVALUATION_SCALE);
+            while (depth > ply) {
+                game.unmake(ctx.played[--depth]);
+                value = -value;
+            }
+            return value;
+        }
+        
+        private int nextInt(int bound) {
+            random ^= random << 13;
+            random ^= random >>> 7;
+            random ^= random << 17;
+            return (int) ((random >>> 33) % bound);
+        }
+        
+        private void report(Worker[] helpers, long elapsed) {
+            int best = mostVisitedChild(0);
+            if (best <= 0) {
+                return;
+            }
+            long nodes = ctx.nodes;
+            for (Worker helper : helpers) {
+                nodes += helper.ctx.nodes;
+            }
+            int depth = principalVariation(ctx.pv[0]);
+            ctx.handle.report(new SearchInfo(new AbaloneAI.Move(moves[best]), toScore(meanValue(best)), depth,
+                nodes, elapsed));
+        }
+    }
+    
+    /**
+     * PUCT: the child with the best mean value plus an exploration bonus
+     * that grows with its prior and shrinks with its visits
+     */
+    private int select(int node, int first) {
+        int end = first + childCounts[node];
+        int parentVisits = visits.get(node);
+        float explore = EXPLORATION * (float) Math.sqrt(Math.max(1, parentVisits));
+        float firstPlay = (node == 0 ? 0f : -meanValue(node)) - FIRST_PLAY_REDUCTION;
+        int best = first;
+        float bestScore = -Float.MAX_VALUE;
+        for (int child = first; child < end; child++) {
+            int n = visits.get(child);
+            float q = n > 0 ? values.get(child) / (float) (n * VALUE_ONE) : firstPlay;
+            float score = q + explore * priors[child] / (1 + n);
+            if (score > bestScore) {
+                bestScore = score;
+                best = child;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Give a node one child per move, with priors from {@link #priorScore}
+     * in a softmax. The node must be claimed, by being the root or by
+     * setting its first child to {@link #EXPANDING}; it becomes visible to
+     * other threads only once its children are filled in.
+     *
+     * @param scores scratch buffer of at least {@code count} entries
+     */
+    private void expand(int node, int[] generated, int count, int[] scores) {
+        if (count == 0) {
+            firstChild.set(node, 0);
+            return;
+        }
+        int first = size.getAndAdd(count);
+        if (first + count > capacity) {
+            full = true;
+            firstChild.set(node, 0);
+            return;
+        }
+        
+        int maxScore = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            scores[i] = priorScore(generated[i]);
+            maxScore = Math.max(maxScore, scores[i]);
+        }
+        float total = 0f;
+        for (int i = 0; i < count; i++) {
+            int child = first + i;
+            moves[child] = generated[i];
+            priors[child] = (float) Math.exp((scores[i] - maxScore) / 10.0);
+            total += priors[child];
+            childCounts[child] = 0;
+            firstChild.set(child, 0);
+            visits.set(child, 0);
+            values.set(child, 0);
+        }
+        for (int i = 0; i < count; i++) {
+            priors[first + i] /= total;
+        }
+        childCounts[node] = count;
+        firstChild.set(node, first);
+    }
+    
+    /**
+     * Prior logit of a move in tenths: ejections and pushes first, then moves of
+     * more marbles and towards the center
+     */
+    private static int priorScore(int move) {
+        int score = PackedMove.pushedCount(move) * 15 + PackedMove.length(move) * 3
+            - AbaloneAI.centerDistance(move) * 2;
+        return PackedMove.ejects(move) ? score + 40 : score;
+    }
+    
+    private int mostVisitedChild(int node) {
+        int first = firstChild.get(node);
+        if (first <= 0) {
+            return -1;
+        }
+        int best = -1;
+        int bestVisits = -1;
+        for (int child = first; child < first + childCounts[node]; child++) {
+            int n = visits.get(child);
+            if (n > bestVisits) {
+                bestVisits = n;
+                best = child;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Follow the most visited children from the root
+     *
+     * @return length of the line written to {@code line}
+     */
+    private int principalVariation(int[] line) {
+        int length = 0;
+        int node = 0;
+        while (length < line.length) {
+            int child = mostVisitedChild(node);
+            if (child <= 0 || visits.get(child) == 0) {
+                break;
+            }
+            line[length++] = moves[child];
+            node = child;
+        }
+        return length;
+    }
+    
+    /**
+     * Mean value of a node for the side that played its move, in [-1, 1]
+     */
+    private float meanValue(int node) {
+        int n = visits.get(node);
+        return n > 0 ? values.get(node) / (float) (n * VALUE_ONE) : 0f;
+    }
+    
+    /**
+     * A value back in evaluation units, inverting the playout's tanh
+     */
+    private static int toScore(float value) {
+        double clamped = Math.max(-0.999, Math.min(0.999, value));
+        return (int) (0.5 * Math.log((1 + clamped) / (1 - clamped)) * EVALUATION_SCALE);
+    }
+}
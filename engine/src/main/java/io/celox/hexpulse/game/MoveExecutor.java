@@ -0,0 +1,159 @@
+package io.celox.hexpulse.game;
+
+import java.util.List;
+
+/**
+ * Executes validated moves according to Abalone rules.
+ * Every execute and undo passes the turn in the board's Zobrist hash.
+ */
+public class MoveExecutor {
+    
+    private final BitBoard board;
+    
+    public MoveExecutor(BitBoard board) {
+        this.board = board;
+    }
+    
+    /**
+     * Execute a validated move
+     */
+    public void executeMove(MoveValidator.ValidatedMove move, Player currentPlayer) {
+        int direction = move.direction;
+        if (move.type == MoveValidator.MoveType.SIDESTEP_MOVE) {
+            // Clear all old positions first, then set all new positions
+            for (Hex marble : move.marbles) {
+                board.set(BitBoard.indexOf(marble), Player.EMPTY);
+            }
+            for (Hex marble : move.marbles) {
+                board.set(BitBoard.neighbor(BitBoard.indexOf(marble), direction), currentPlayer);
+            }
+        } else {
+            // Single and inline: only the rear cell empties and the cell ahead of the front fills
+            long line = cells(move.marbles);
+            int front = BitBoard.runEnd(line, Long.numberOfTrailingZeros(line), direction);
+            int rear = BitBoard.runEnd(line, front, (direction + 3) % 6);
+            if (move.isPush && !move.pushedMarbles.isEmpty()) {
+                int beyond = BitBoard.ray(front, direction, move.pushedMarbles.size() + 1);
+                if (beyond == BitBoard.OFF_BOARD) {
+                    // Marble pushed off board - increment score
+                    board.addScore(currentPlayer, 1);
+                } else {
+                    board.set(beyond, currentPlayer.getOpponent());
+                }
+            }
+            board.set(rear, Player.EMPTY);
+            board.set(BitBoard.neighbor(front, direction), currentPlayer);
+        }
+        board.toggleSideToMove();
+    }
+    
+    /**
+     * Undo a move previously executed with {@link #executeMove}, restoring
+     * the cells and the score exactly
+     */
+    public void undoMove(MoveValidator.ValidatedMove move, Player currentPlayer) {
+        int direction = move.direction;
+        if (move.type == MoveValidator.MoveType.SIDESTEP_MOVE) {
+            for (Hex marble : move.marbles) {
+                board.set(BitBoard.neighbor(BitBoard.indexOf(marble), direction), Player.EMPTY);
+            }
+            for (Hex marble : move.marbles) {
+                board.set(BitBoard.indexOf(marble), currentPlayer);
+            }
+        } else {
+            long line = cells(move.marbles);
+            int front = BitBoard.runEnd(line, Long.numberOfTrailingZeros(line), direction);
+            int rear = BitBoard.runEnd(line, front, (direction + 3) % 6);
+            int ahead = BitBoard.neighbor(front, direction);
+            if (move.isPush && !move.pushedMarbles.isEmpty()) {
+                int beyond = BitBoard.ray(front, direction, move.pushedMarbles.size() + 1);
+                if (beyond == BitBoard.OFF_BOARD) {
+                    // Marble had been pushed off board - take the point back
+                    board.addScore(currentPlayer, -1);
+                } else {
+                    board.set(beyond, Player.EMPTY);
+                }
+                board.set(ahead, currentPlayer.getOpponent());
+            } else {
+                board.set(ahead, Player.EMPTY);
+            }
+            board.set(rear, currentPlayer);
+        }
+        board.toggleSideToMove();
+    }
+    
+    /**
+     * Execute a packed move from {@link MoveGenerator} for the moving player
+     */
+    public void executeMove(int move, Player currentPlayer) {
+        int direction = PackedMove.direction(move);
+        if (PackedMove.isInline(move)) {
+            // Inline: only the rear cell empties and the cell ahead of the front fills
+            int front = PackedMove.frontCell(move);
+            int ahead = BitBoard.neighbor(front, direction);
+            board.set(PackedMove.rearCell(move), Player.EMPTY);
+            board.set(ahead, currentPlayer);
+            
+            int pushed = PackedMove.pushedCount(move);
+            if (pushed > 0) {
+                if (PackedMove.ejects(move)) {
+                    board.addScore(currentPlayer, 1);
+                } else {
+                    board.set(BitBoard.ray(ahead, direction, pushed), currentPlayer.getOpponent());
+                }
+            }
+        } else {
+            int axis = PackedMove.axis(move);
+            int cell = PackedMove.origin(move);
+            for (int i = 0; i < PackedMove.length(move); i++) {
+                board.set(cell, Player.EMPTY);
+                board.set(BitBoard.neighbor(cell, direction), currentPlayer);
+                cell = BitBoard.neighbor(cell, axis);
+            }
+        }
+        board.toggleSideToMove();
+    }
+    
+    /**
+     * Undo a packed move previously executed with {@link #executeMove(int, Player)}
+     */
+    public void undoMove(int move, Player currentPlayer) {
+        int direction = PackedMove.direction(move);
+        if (PackedMove.isInline(move)) {
+            int front = PackedMove.frontCell(move);
+            int ahead = BitBoard.neighbor(front, direction);
+            int pushed = PackedMove.pushedCount(move);
+            if (pushed > 0) {
+                if (PackedMove.ejects(move)) {
+                    board.addScore(currentPlayer, -1);
+                } else {
+                    board.set(BitBoard.ray(ahead, direction, pushed), Player.EMPTY);
+                }
+                board.set(ahead, currentPlayer.getOpponent());
+            } else {
+                board.set(ahead, Player.EMPTY);
+            }
+            board.set(PackedMove.rearCell(move), currentPlayer);
+        } else {
+            int axis = PackedMove.axis(move);
+            int cell = PackedMove.origin(move);
+            for (int i = 0; i < PackedMove.length(move); i++) {
+                board.set(BitBoard.neighbor(cell, direction), Player.EMPTY);
+                board.set(cell, currentPlayer);
+                cell = BitBoard.neighbor(cell, axis);
+            }
+        }
+        board.toggleSideToMove();
+    }
+    
+    /**
+     * Mask of the cells under a list of marbles
+     */
+    private static long cells(List<Hex> marbles) {
+        long cells = 0L;
+        for (Hex marble : marbles) {
+            cells |= 1L << BitBoard.indexOf(marble);
+        }
+        return cells;
+    }
+}
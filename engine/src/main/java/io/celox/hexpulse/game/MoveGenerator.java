@@ -0,0 +1,174 @@
+package io.celox.hexpulse.game;
+
+/**
+ * Allocation-free generator of every legal move as a {@link PackedMove} int.
+ *
+ * Scans each line of 1-3 own marbles directly on the bitboard and emits all
+ * legal single, inline, broadside and sumito moves into a caller-supplied
+ * buffer. Moves come out singles first, then pairs, then triples.
+ */
+public final class MoveGenerator {
+    /**
+     * Upper bound on moves for one side: each of 14 marbles can lead
+     * 6 single moves plus a pair and a triple on each of 3 axes with 6 moves each
+     */
+    public static final int MAX_MOVES = 14 * (6 + 3 * 2 * 6);
+    
+    private MoveGenerator() {
+    }
+    
+    /**
+     * Generate all legal moves for a player into the buffer
+     *
+     * @return number of moves written
+     */
+    public static int generate(BitBoard board, Player player, int[] moves) {
+        long own = board.mask(player);
+        long opponent = board.mask(player.getOpponent());
+        long empty = BitBoard.ALL_CELLS & ~(own | opponent);
+        int count = 0;
+        
+        // Single marbles: any direction into an empty cell
+        for (long bits = own; bits != 0; bits &= bits - 1) {
+            int cell = Long.numberOfTrailingZeros(bits);
+            for (int dir = 0; dir < 6; dir++) {
+                int target = BitBoard.neighbor(cell, dir);
+                if (target >= 0 && (empty & 1L << target) != 0) {
+                    moves[count++] = PackedMove.encode(cell, 1, 0, dir, 0, false);
+                }
+            }
+        }
+        
+        // Lines of two, then three marbles along each axis
+        for (int length = 2; length <= 3; length++) {
+            for (long bits = own; bits != 0; bits &= bits - 1) {
+                int origin = Long.numberOfTrailingZeros(bits);
+                for (int axis = 0; axis < 3; axis++) {
+                    int head = lineHead(origin, axis, length, own);
+                    if (head >= 0) {
+                        count = addLineMoves(origin, head, axis, length, own, opponent, empty, moves, count);
+                    }
+                }
+            }
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Generate only the sumito moves for a player, ejections first, for the
+     * quiescence search
+     *
+     * @return number of moves written
+     */
+    public static int generatePushes(BitBoard board, Player player, int[] moves) {
+        long own = board.mask(player);
+        long opponent = board.mask(player.getOpponent());
+        int count = 0;
+        
+        for (int length = 2; length <= 3; length++) {
+            for (long bits = own; bits != 0; bits &= bits - 1) {
+                int origin = Long.numberOfTrailingZeros(bits);
+                for (int axis = 0; axis < 3; axis++) {
+                    int head = lineHead(origin, axis, length, own);
+                    if (head < 0) {
+                        continue;
+                    }
+                    if (isOpponentAhead(head, axis, opponent)) {
+                        count = addInlineMove(origin, head, axis, axis, length, own, opponent, moves, count);
+                    }
+                    if (isOpponentAhead(origin, axis + 3, opponent)) {
+                        count = addInlineMove(origin, origin, axis, axis + 3, length, own, opponent, moves, count);
+                    }
+                }
+            }
+        }
+        
+        // Move ejections to the front, keeping the order otherwise
+        int ejections = 0;
+        for (int i = 0; i < count; i++) {
+            if (PackedMove.ejects(moves[i])) {
+                int move = moves[i];
+                System.arraycopy(moves, ejections, moves, ejections + 1, i - ejections);
+                moves[ejections++] = move;
+            }
+        }
+        return count;
+    }
+    
+    private static boolean isOpponentAhead(int front, int dir, long opponent) {
+        int cell = BitBoard.neighbor(front, dir);
+        return cell >= 0 && (opponent & 1L << cell) != 0;
+    }
+    
+    /**
+     * Last cell of a line of own marbles starting at origin, or -1 if the line is broken
+     */
+    private static int lineHead(int origin, int axis, int length, long own) {
+        int cell = origin;
+        for (int i = 1; i < length; i++) {
+            cell = BitBoard.neighbor(cell, axis);
+            if (cell < 0 || (own & 1L << cell) == 0) {
+                return -1;
+            }
+        }
+        return cell;
+    }
+    
+    private static int addLineMoves(int origin, int head, int axis, int length,
+                                    long own, long opponent, long empty, int[] moves, int count) {
+        for (int dir = 0; dir < 6; dir++) {
+            if (dir == axis) {
+                count = addInlineMove(origin, head, axis, dir, length, own, opponent, moves, count);
+            } else if (dir == axis + 3) {
+                count = addInlineMove(origin, origin, axis, dir, length, own, opponent, moves, count);
+            } else if (broadsideIsFree(origin, axis, dir, length, empty)) {
+                moves[count++] = PackedMove.encode(origin, length, axis, dir, 0, false);
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Inline move led by the front marble: into an empty cell, or a sumito
+     * against a smaller opponent group that is not backed by one of our marbles
+     */
+    private static int addInlineMove(int origin, int front, int axis, int dir, int length,
+                                     long own, long opponent, int[] moves, int count) {
+        int cell = BitBoard.neighbor(front, dir);
+        if (cell < 0 || (own & 1L << cell) != 0) {
+            return count;
+        }
+        if ((opponent & 1L << cell) == 0) {
+            moves[count++] = PackedMove.encode(origin, length, axis, dir, 0, false);
+            return count;
+        }
+        
+        int pushed = 0;
+        while (cell >= 0 && (opponent & 1L << cell) != 0) {
+            pushed++;
+            cell = BitBoard.neighbor(cell, dir);
+        }
+        if (pushed >= length) {
+            return count;
+        }
+        if (cell < 0) {
+            moves[count++] = PackedMove.encode(origin, length, axis, dir, pushed, true);
+        } else if ((own & 1L << cell) == 0) {
+            moves[count++] = PackedMove.encode(origin, length, axis, dir, pushed, false);
+        }
+        return count;
+    }
+    
+    private static boolean broadsideIsFree(int origin, int axis, int dir, int length, long empty) {
+        int cell = origin;
+        for (int i = 0; i < length; i++) {
+            int target = BitBoard.neighbor(cell, dir);
+            if (target < 0 || (empty & 1L << target) == 0) {
+                return false;
+            }
+            cell = BitBoard.neighbor(cell, axis);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,57 @@
+package io.celox.hexpulse.game;
+
+import java.util.Arrays;
+
+/**
+ * Undo and redo history of a game as {@link PackedMove} ints, 4 bytes a move.
+ *
+ * A packed move names every cell it changed and whether it ejected a marble,
+ * so stepping back or forward over one only touches those cells and the
+ * mover's score. Recording a move after undoing drops the moves that could
+ * have been redone.
+ */
+public final class MoveJournal {
+    private int[] moves = new int[64];
+    /** Moves currently on the board */
+    private int played;
+    /** Played moves plus the undone ones that can still be redone */
+    private int recorded;
+    
+    /**
+     * Record a move just played
+     */
+    public void record(int move) {
+        if (played == moves.length) {
+            moves = Arrays.copyOf(moves, 2 * played);
+        }
+        moves[played++] = move;
+        recorded = played;
+    }
+    
+    /**
+     * Step back over the last played move and return it, or {@link PackedMove#NONE}
+     */
+    public int undo() {
+        return played == 0 ? PackedMove.NONE : moves[--played];
+    }
+    
+    /**
+     * Step forward over the last undone move and return it, or {@link PackedMove#NONE}
+     */
+    public int redo() {
+        return played == recorded ? PackedMove.NONE : moves[played++];
+    }
+    
+    public int undoCount() {
+        return played;
+    }
+    
+    public int redoCount() {
+        return recorded - played;
+    }
+    
+    public void clear() {
+        played = 0;
+        recorded = 0;
+    }
+}
@@ -0,0 +1,247 @@
+package io.celox.hexpulse.game;
+
+import java.util.*;
+
+/**
+ * Validates moves according to official Abalone rules
+ */
+public class MoveValidator {
+    
+    /**
+     * Represents a validated move with all necessary information
+     */
+    public static class ValidatedMove {
+        public final List<Hex> marbles;
+        public final Hex targetPosition;
+        public final int direction;
+        public final MoveType type;
+        public final boolean isPush;
+        public final List<Hex> pushedMarbles;
+        
+        public ValidatedMove(List<Hex> marbles, Hex targetPosition, int direction, 
+                           MoveType type, boolean isPush, List<Hex> pushedMarbles) {
+            this.marbles = new ArrayList<>(marbles);
+            this.targetPosition = targetPosition;
+            this.direction = direction;
+            this.type = type;
+            this.isPush = isPush;
+            this.pushedMarbles = pushedMarbles != null ? new ArrayList<>(pushedMarbles) : new ArrayList<>();
+        }
+    }
+    
+    public enum MoveType {
+        SINGLE_MARBLE,
+        INLINE_MOVE,
+        SIDESTEP_MOVE
+    }
+    
+    private final BitBoard board;
+    private final Player currentPlayer;
+    
+    public MoveValidator(BitBoard board, Player currentPlayer) {
+        this.board = board;
+        this.currentPlayer = currentPlayer;
+    }
+    
+    /**
+     * Get all valid moves for selected marbles according to Abalone rules
+     */
+    public List<ValidatedMove> getValidMoves(List<Hex> selectedMarbles) {
+        List<ValidatedMove> validMoves = new ArrayList<>();
+        
+        if (selectedMarbles.isEmpty() || selectedMarbles.size() > 3) {
+            return validMoves;
+        }
+        
+        // Verify all marbles belong to current player, collecting their cells
+        long own = board.mask(currentPlayer);
+        long selection = 0L;
+        for (Hex marble : selectedMarbles) {
+            int cell = BitBoard.indexOf(marble);
+            if (cell == BitBoard.OFF_BOARD || (own & 1L << cell) == 0) {
+                return validMoves;
+            }
+            selection |= 1L << cell;
+        }
+        
+        if (selectedMarbles.size() == 1) {
+            addSingleMarbleMoves(selectedMarbles, Long.numberOfTrailingZeros(selection), validMoves);
+        } else {
+            // Multiple marbles - must form a column (straight line)
+            int axis = columnAxis(selection, selectedMarbles.size());
+            if (axis >= 0) {
+                addColumnMoves(selectedMarbles, selection, axis, validMoves);
+            }
+        }
+        
+        return validMoves;
+    }
+    
+    /**
+     * Add all valid moves for a single marble
+     */
+    private void addSingleMarbleMoves(List<Hex> marbles, int cell, List<ValidatedMove> moves) {
+        long empty = board.mask(Player.EMPTY);
+        
+        for (int dir = 0; dir < 6; dir++) {
+            int target = BitBoard.neighbor(cell, dir);
+            
+            if (target != BitBoard.OFF_BOARD && (empty & 1L << target) != 0) {
+                // Simple move to empty space
+                moves.add(new ValidatedMove(
+                    marbles, BitBoard.hexAt(target), dir,
+                    MoveType.SINGLE_MARBLE, false, null
+                ));
+            }
+            // Note: Single marble cannot push according to rules
+        }
+    }
+    
+    /**
+     * Add all valid moves for a column of marbles
+     */
+    private void addColumnMoves(List<Hex> marbles, long selection, int axis, List<ValidatedMove> moves) {
+        for (int dir = 0; dir < 6; dir++) {
+            ValidatedMove move;
+            if (dir % 3 == axis) {
+                // Check inline moves (along column axis)
+                move = validateInlineMove(marbles, selection, dir);
+            } else {
+                // Check sidestep moves (across column axis)
+                move = validateSidestepMove(marbles, dir);
+            }
+            if (move != null) {
+                moves.add(move);
+            }
+        }
+    }
+    
+    /**
+     * Validate an inline move (potentially with pushing)
+     */
+    private ValidatedMove validateInlineMove(List<Hex> marbles, long selection, int direction) {
+        // Lead marble is the front of the column in movement direction
+        int lead = BitBoard.runEnd(selection, Long.numberOfTrailingZeros(selection), direction);
+        int target = BitBoard.neighbor(lead, direction);
+        
+        if (target == BitBoard.OFF_BOARD) {
+            return null;
+        }
+        
+        Player targetPlayer = board.get(target);
+        
+        if (targetPlayer == Player.EMPTY) {
+            // Simple inline move to empty space
+            return new ValidatedMove(
+                marbles, BitBoard.hexAt(target), direction,
+                MoveType.INLINE_MOVE, false, null
+            );
+        } else if (targetPlayer == currentPlayer.getOpponent()) {
+            // Potential push - validate Sumito rules
+            return validateSumito(marbles, direction, lead);
+        }
+        
+        // Cannot move into own marble
+        return null;
+    }
+    
+    /**
+     * Validate a sidestep (broadside) move
+     */
+    private ValidatedMove validateSidestepMove(List<Hex> marbles, int direction) {
+        // According to rules: "A side-step move CANNOT be used to push"
+        // All target positions must be empty
+        long empty = board.mask(Player.EMPTY);
+        
+        for (Hex marble : marbles) {
+            int target = BitBoard.neighbor(BitBoard.indexOf(marble), direction);
+            
+            if (target == BitBoard.OFF_BOARD || (empty & 1L << target) == 0) {
+                return null;
+            }
+        }
+        
+        // All targets are empty - valid sidestep move
+        Hex representativeTarget = BitBoard.hexAt(BitBoard.neighbor(BitBoard.indexOf(marbles.get(0)), direction));
+        return new ValidatedMove(
+            marbles, representativeTarget, direction,
+            MoveType.SIDESTEP_MOVE, false, null
+        );
+    }
+    
+    /**
+     * Validate Sumito (pushing) rules
+     */
+    private ValidatedMove validateSumito(List<Hex> marbles, int direction, int lead) {
+        long opponent = board.mask(currentPlayer.getOpponent());
+        
+        // Count consecutive opponent marbles in push direction
+        int rayLength = BitBoard.rayLength(lead, direction);
+        int pushed = 0;
+        while (pushed < rayLength && (opponent & 1L << BitBoard.ray(lead, direction, pushed + 1)) != 0) {
+            pushed++;
+        }
+        
+        if (pushed == 0) {
+            return null;
+        }
+        
+        // Apply Sumito rules:
+        // 2 marbles can push 1
+        // 3 marbles can push 1 or 2
+        // Cannot push 3 or more
+        if (pushed >= 3) {
+            return null; // Cannot push 3 or more opponent marbles
+        }
+        
+        if (marbles.size() <= pushed) {
+            return null; // Need numerical superiority
+        }
+        
+        // Valid if pushing off board or into empty space; a friendly marble
+        // behind the opponent's sandwiches them, which cannot be pushed
+        int spaceAfter = pushed < rayLength ? BitBoard.ray(lead, direction, pushed + 1) : BitBoard.OFF_BOARD;
+        if (spaceAfter == BitBoard.OFF_BOARD || board.get(spaceAfter) == Player.EMPTY) {
+            List<Hex> opponentMarbles = new ArrayList<>(pushed);
+            for (int step = 1; step <= pushed; step++) {
+                opponentMarbles.add(BitBoard.hexAt(BitBoard.ray(lead, direction, step)));
+            }
+            
+            // For push moves, the target position should be the first opponent marble
+            // This is what the player clicks on in the UI
+            Hex targetPosition = opponentMarbles.get(0);
+            
+            return new ValidatedMove(
+                marbles, targetPosition, direction,
+                MoveType.INLINE_MOVE, true, opponentMarbles
+            );
+        }
+        return null;
+    }
+    
+    /**
+     * Axis (0-2) along which the selected cells form an unbroken line, or -1
+     */
+    private static int columnAxis(long selection, int size) {
+        if (Long.bitCount(selection) != size) {
+            return -1; // The same marble was selected twice
+        }
+        
+        int first = Long.numberOfTrailingZeros(selection);
+        for (int axis = 0; axis < 3; axis++) {
+            // Walk back from the first cell to the rear of its run, then count forward
+            int rear = BitBoard.runEnd(selection, first, axis + 3);
+            int length = 1;
+            for (int cell = BitBoard.neighbor(rear, axis);
+                 cell != BitBoard.OFF_BOARD && (selection & 1L << cell) != 0;
+                 cell = BitBoard.neighbor(cell, axis)) {
+                length++;
+            }
+            if (length == size) {
+                return axis;
+            }
+        }
+        
+        return -1;
+    }
+}
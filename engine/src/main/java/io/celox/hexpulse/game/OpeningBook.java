@@ -0,0 +1,275 @@
+package io.celox.hexpulse.game;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Read-only opening book: book moves keyed by {@link Zobrist} position hash.
+ *
+ * Positions are stored in their {@link Symmetry#canonical} orientation,
+ * hashed and with their moves turned to match, so one entry serves all 12
+ * rotated and mirrored copies of a position. The board overloads of
+ * {@link #probe(BitBoard, Player, Random)}, {@link #bestMove(BitBoard, Player)}
+ * and {@link Builder#add(BitBoard, Player, int, int)} do the turning.
+ *
+ * The file is a 16-byte header (magic, version, entry count, reserved)
+ * followed by 16-byte entries sorted by hash: the hash as a long, the
+ * {@link PackedMove} as an int and its weight as an int, all big-endian. A
+ * position may have several entries in a row. The entries are searched in
+ * place, so a memory-mapped file is usable as soon as it is mapped, without
+ * parsing or copying.
+ */
+public final class OpeningBook {
+    /** "HXBK" */
+    public static final int MAGIC = 0x4858424B;
+    public static final int VERSION = 2;
+    
+    private static final int HEADER_BYTES = 16;
+    private static final int ENTRY_BYTES = 16;
+    private static final int MOVE_OFFSET = 8;
+    private static final int WEIGHT_OFFSET = 12;
+    
+    private final ByteBuffer buffer;
+    private final int size;
+    
+    private OpeningBook(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        if (buffer.remaining() < HEADER_BYTES || this.buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not an opening book");
+        }
+        if (this.buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported opening book version " + this.buffer.getInt(4));
+        }
+        size = this.buffer.getInt(8);
+        if (size < 0 || (long) size * ENTRY_BYTES != buffer.remaining() - HEADER_BYTES) {
+            throw new IllegalArgumentException("Opening book is truncated");
+        }
+    }
+    
+    /**
+     * Use a book held in a buffer, from its position to its limit
+     *
+     * @throws IllegalArgumentException if the buffer does not hold a book
+     */
+    public static OpeningBook wrap(ByteBuffer buffer) {
+        return new OpeningBook(buffer.slice());
+    }
+    
+    /**
+     * Memory-map a book file
+     */
+    public static OpeningBook open(File file) throws IOException {
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            return map(in.getChannel(), 0, in.length());
+        }
+    }
+    
+    /**
+     * Memory-map a book stored at an offset of a file, e.g. an uncompressed
+     * Android asset. The mapping stays valid after the channel is closed.
+     */
+    public static OpeningBook map(FileChannel channel, long offset, long length) throws IOException {
+        return wrap(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+    }
+    
+    /**
+     * Read a book from a stream that cannot be mapped, e.g. a compressed asset
+     */
+    public static OpeningBook read(InputStream in) throws IOException {
+        // InputStream.readAllBytes is missing on older Android versions
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        for (int read; (read = in.read(chunk)) > 0; ) {
+            out.write(chunk, 0, read);
+        }
+        return wrap(ByteBuffer.wrap(out.toByteArray()));
+    }
+    
+    /**
+     * Number of entries
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Pick a book move for a position, in any orientation, at random in
+     * proportion to the weights
+     *
+     * @return the move, or {@link PackedMove#NONE} if the position is not in the book
+     */
+    public int probe(BitBoard board, Player sideToMove, Random random) {
+        int symmetry = Symmetry.canonical(board);
+        int move = probe(Symmetry.hash(board, sideToMove, symmetry), random);
+        return Symmetry.transformMove(move, Symmetry.inverse(symmetry));
+    }
+    
+    /**
+     * The highest weighted book move for a position in any orientation, or
+     * {@link PackedMove#NONE}
+     */
+    public int bestMove(BitBoard board, Player sideToMove) {
+        int symmetry = Symmetry.canonical(board);
+        int move = bestMove(Symmetry.hash(board, sideToMove, symmetry));
+        return Symmetry.transformMove(move, Symmetry.inverse(symmetry));
+    }
+    
+    /**
+     * Pick a book move stored under a hash, at random in proportion to the weights
+     *
+     * @return the move, or {@link PackedMove#NONE} if the hash is not in the book
+     */
+    public int probe(long hash, Random random) {
+        int first = lowerBound(hash);
+        int total = 0;
+        int end = first;
+        for (; end < size && hash(end) == hash; end++) {
+            total += weight(end);
+        }
+        if (total <= 0) {
+            return PackedMove.NONE;
+        }
+        int pick = random.nextInt(total);
+        for (int i = first; i < end; i++) {
+            pick -= weight(i);
+            if (pick < 0) {
+                return move(i);
+            }
+        }
+        return PackedMove.NONE;
+    }
+    
+    /**
+     * The highest weighted book move stored under a hash, or {@link PackedMove#NONE}
+     */
+    public int bestMove(long hash) {
+        int best = PackedMove.NONE;
+        int bestWeight = 0;
+        for (int i = lowerBound(hash); i < size && hash(i) == hash; i++) {
+            if (weight(i) > bestWeight) {
+                bestWeight = weight(i);
+                best = move(i);
+            }
+        }
+        return best;
+    }
+    
+    private int lowerBound(long hash) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (hash(mid) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private long hash(int entry) {
+        return buffer.getLong(HEADER_BYTES + entry * ENTRY_BYTES);
+    }
+    
+    private int move(int entry) {
+        return buffer.getInt(HEADER_BYTES + entry * ENTRY_BYTES + MOVE_OFFSET);
+    }
+    
+    private int weight(int entry) {
+        return buffer.getInt(HEADER_BYTES + entry * ENTRY_BYTES + WEIGHT_OFFSET);
+    }
+    
+    /**
+     * Collects weighted moves per position and writes them in book format
+     */
+    public static final class Builder {
+        private final Map<Long, Map<Integer, Integer>> positions = new HashMap<>();
+        
+        /**
+         * Add weight to a move of a position, stored in its canonical orientation
+         */
+        public Builder add(BitBoard board, Player sideToMove, int move, int weight) {
+            int symmetry = Symmetry.canonical(board);
+            return add(Symmetry.hash(board, sideToMove, symmetry), Symmetry.transformMove(move, symmetry), weight);
+        }
+        
+        /**
+         * Add weight to a move stored under a hash as given
+         */
+        public Builder add(long hash, int move, int weight) {
+            if (move == PackedMove.NONE || weight <= 0) {
+                throw new IllegalArgumentException("Book moves need a move and a positive weight");
+            }
+            positions.computeIfAbsent(hash, key -> new HashMap<>()).merge(move, weight, Integer::sum);
+            return this;
+        }
+        
+        /**
+         * Number of positions collected so far
+         */
+        public int positions() {
+            return positions.size();
+        }
+        
+        /**
+         * Write the book; entries of a position are ordered by move so the output is reproducible
+         */
+        public void write(OutputStream out) throws IOException {
+            List<Long> hashes = new ArrayList<>(positions.keySet());
+            hashes.sort(Long::compare);
+            int count = 0;
+            for (Map<Integer, Integer> moves : positions.values()) {
+                count += moves.size();
+            }
+            
+            DataOutputStream data = new DataOutputStream(out);
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeInt(count);
+            data.writeInt(0);
+            for (long hash : hashes) {
+                Map<Integer, Integer> moves = positions.get(hash);
+                int[] sorted = new int[moves.size()];
+                int i = 0;
+                for (int move : moves.keySet()) {
+                    sorted[i++] = move;
+                }
+                Arrays.sort(sorted);
+                for (int move : sorted) {
+                    data.writeLong(hash);
+                    data.writeInt(move);
+                    data.writeInt(moves.get(move));
+                }
+            }
+            data.flush();
+        }
+        
+        /**
+         * The book as it would be written, in a heap buffer
+         */
+        public OpeningBook build() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                write(out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return wrap(ByteBuffer.wrap(out.toByteArray()));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.celox.hexpulse.game;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Builds an {@link OpeningBook} offline by self-play.
+ *
+ * Each game starts from the initial position and records the move a
+ * fixed-depth search picks at every ply up to the book depth, one weight
+ * per game that reaches the position. To cover the player's openings too,
+ * every other game starts with a different first move, in turn, and later
+ * plies leave the searched move at random now and then; those deviations
+ * are played but not recorded. Positions are searched and recorded in their
+ * canonical orientation, so mirrored lines share their searches and entries.
+ *
+ * Usage: {@code OpeningBookBuilder <output file> [games] [plies] [depth] [seed]}
+ */
+public final class OpeningBookBuilder {
+    public static final int DEFAULT_GAMES = 200;
+    public static final int DEFAULT_PLIES = 10;
+    public static final int DEFAULT_DEPTH = 6;
+    /** Chance that a ply after the first plays a random move instead of the book move */
+    private static final double DEVIATION = 0.1;
+    
+    private OpeningBookBuilder() {
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: OpeningBookBuilder <output file> [games] [plies] [depth] [seed]");
+            return;
+        }
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_GAMES;
+        int plies = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_PLIES;
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_DEPTH;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 1L;
+        
+        long start = System.nanoTime();
+        OpeningBook.Builder book = build(games, plies, depth, seed);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(args[0]))) {
+            book.write(out);
+        }
+        System.out.printf(Locale.US, "%d positions from %d games of %d plies at depth %d in %.1f s%n",
+            book.positions(), games, plies, depth, (System.nanoTime() - start) / 1e9);
+    }
+    
+    /**
+     * Play the self-play games and collect their book moves
+     */
+    public static OpeningBook.Builder build(int games, int plies, int depth, long seed) {
+        OpeningBook.Builder book = new OpeningBook.Builder();
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+        Random random = new Random(seed);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        // Games meet the same positions again and again; search each only once,
+        // whichever way round they come up
+        Map<Long, Integer> searched = new HashMap<>();
+        
+        for (int game = 0; game < games; game++) {
+            AbaloneGame position = new AbaloneGame();
+            for (int ply = 0; ply < plies && position.checkWinner() == null; ply++) {
+                Player side = position.getCurrentPlayer();
+                int symmetry = Symmetry.canonical(position.board());
+                long hash = Symmetry.hash(position.board(), side, symmetry);
+                Integer cached = searched.get(hash);
+                int best = cached != null ? Symmetry.transformMove(cached, Symmetry.inverse(symmetry))
+                    : ai.searchFixedDepth(new AbaloneAI.SearchContext(position), side, depth);
+                if (best == PackedMove.NONE) {
+                    break;
+                }
+                int canonicalBest = Symmetry.transformMove(best, symmetry);
+                searched.put(hash, canonicalBest);
+                book.add(hash, canonicalBest, 1);
+                
+                int count = MoveGenerator.generate(position.board(), side, moves);
+                int move = best;
+                if (ply == 0 && game % 2 == 1) {
+                    move = moves[(game / 2) % count];
+                } else if (ply > 0 && random.nextDouble() < DEVIATION) {
+                    move = moves[random.nextInt(count)];
+                }
+                position.make(move);
+            }
+        }
+        ai.shutdown();
+        return book;
+    }
+}
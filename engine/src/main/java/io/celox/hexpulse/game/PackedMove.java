@@ -0,0 +1,174 @@
+package io.celox.hexpulse.game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packs a move into a single int for the AI search.
+ *
+ * Layout (low to high bits):
+ * origin cell (6) | length 1-3 (2) | line axis 0-2 (2) | direction 0-5 (3) |
+ * pushed opponent marbles 0-2 (2) | ejects flag (1)
+ *
+ * The moving marbles are the origin cell and the next {@code length - 1} cells
+ * in direction {@code axis}. A move is inline when it runs along that axis
+ * (single marbles always count as inline); otherwise it is a broadside move.
+ * Only inline moves push, and the pushed count plus ejects flag make every
+ * move undoable from the int alone.
+ */
+public final class PackedMove {
+    /** No move; never produced by the generator because length is at least 1 */
+    public static final int NONE = 0;
+    
+    /** Number of distinct {@link #shape} values, for tables indexed by move */
+    public static final int SHAPES = 1 << 13;
+    
+    private static final int ORIGIN_MASK = 0x3F;
+    private static final int LENGTH_SHIFT = 6;
+    private static final int AXIS_SHIFT = 8;
+    private static final int DIRECTION_SHIFT = 10;
+    private static final int PUSHED_SHIFT = 13;
+    private static final int EJECTS_BIT = 1 << 15;
+    
+    private PackedMove() {
+    }
+    
+    public static int encode(int origin, int length, int axis, int direction, int pushed, boolean ejects) {
+        return origin
+            | length << LENGTH_SHIFT
+            | axis << AXIS_SHIFT
+            | direction << DIRECTION_SHIFT
+            | pushed << PUSHED_SHIFT
+            | (ejects ? EJECTS_BIT : 0);
+    }
+    
+    /**
+     * Pack a move checked by {@link MoveValidator}, the same way the generator
+     * would have produced it
+     */
+    public static int of(MoveValidator.ValidatedMove move) {
+        long cells = 0L;
+        for (Hex marble : move.marbles) {
+            cells |= 1L << BitBoard.indexOf(marble);
+        }
+        int pushed = move.isPush ? move.pushedMarbles.size() : 0;
+        boolean ejects = pushed > 0 && BitBoard.neighbor(
+            BitBoard.indexOf(move.pushedMarbles.get(pushed - 1)), move.direction) == BitBoard.OFF_BOARD;
+        return pack(cells, move.marbles.size(), move.direction, pushed, ejects);
+    }
+    
+    /**
+     * Pack the marbles of a move given as a cell mask, choosing the origin and
+     * axis the way the generator does
+     */
+    static int pack(long cells, int length, int direction, int pushed, boolean ejects) {
+        int first = Long.numberOfTrailingZeros(cells);
+        
+        // Singles use axis 0; lines the axis on which the first cell has a neighbour in the line
+        int axis = 0;
+        while (length > 1 && BitBoard.runEnd(cells, first, axis) == first
+                && BitBoard.runEnd(cells, first, axis + 3) == first) {
+            axis++;
+        }
+        int origin = BitBoard.runEnd(cells, first, axis + 3);
+        return encode(origin, length, axis, direction, pushed, ejects);
+    }
+    
+    public static int origin(int move) {
+        return move & ORIGIN_MASK;
+    }
+    
+    public static int length(int move) {
+        return (move >>> LENGTH_SHIFT) & 0x3;
+    }
+    
+    public static int axis(int move) {
+        return (move >>> AXIS_SHIFT) & 0x3;
+    }
+    
+    public static int direction(int move) {
+        return (move >>> DIRECTION_SHIFT) & 0x7;
+    }
+    
+    /**
+     * Number of opponent marbles pushed (0 for non-pushing moves)
+     */
+    public static int pushedCount(int move) {
+        return (move >>> PUSHED_SHIFT) & 0x3;
+    }
+    
+    /**
+     * The marbles and direction of a move without its push outcome, in [0, SHAPES)
+     */
+    public static int shape(int move) {
+        return move & (SHAPES - 1);
+    }
+    
+    public static boolean isPush(int move) {
+        return pushedCount(move) != 0;
+    }
+    
+    /**
+     * Whether the push sends the last opponent marble off the board
+     */
+    public static boolean ejects(int move) {
+        return (move & EJECTS_BIT) != 0;
+    }
+    
+    public static boolean isInline(int move) {
+        return length(move) == 1 || direction(move) % 3 == axis(move);
+    }
+    
+    /**
+     * Cell of the marble at the front of an inline move
+     */
+    public static int frontCell(int move) {
+        int origin = origin(move);
+        if (direction(move) != axis(move)) {
+            return origin;
+        }
+        int cell = origin;
+        for (int i = 1; i < length(move); i++) {
+            cell = BitBoard.neighbor(cell, axis(move));
+        }
+        return cell;
+    }
+    
+    /**
+     * Cell of the marble at the back of an inline move
+     */
+    public static int rearCell(int move) {
+        int origin = origin(move);
+        if (direction(move) == axis(move)) {
+            return origin;
+        }
+        int cell = origin;
+        for (int i = 1; i < length(move); i++) {
+            cell = BitBoard.neighbor(cell, axis(move));
+        }
+        return cell;
+    }
+    
+    /**
+     * Moving marbles in line order, starting at the origin cell
+     */
+    public static List<Hex> marbles(int move) {
+        List<Hex> marbles = new ArrayList<>(3);
+        int cell = origin(move);
+        for (int i = 0; i < length(move); i++) {
+            marbles.add(BitBoard.hexAt(cell));
+            cell = BitBoard.neighbor(cell, axis(move));
+        }
+        return marbles;
+    }
+    
+    /**
+     * Target position the UI uses for this move when the marbles are selected in
+     * {@link #marbles} order: the cell ahead of the front marble for inline moves,
+     * and the cell beside the first marble for broadside moves
+     */
+    public static Hex target(int move) {
+        int from = isInline(move) ? frontCell(move) : origin(move);
+        return BitBoard.hexAt(BitBoard.neighbor(from, direction(move)));
+    }
+}
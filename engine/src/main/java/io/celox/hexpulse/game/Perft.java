@@ -0,0 +1,266 @@
+package io.celox.hexpulse.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Perft: exhaustive count of legal move sequences to a fixed depth.
+ *
+ * The reference count enumerates every 1-3 marble selection through
+ * {@link MoveValidator} and plays moves with {@link AbaloneGame#make}, so it
+ * checks the rules exactly as the UI applies them. The generator count uses
+ * {@link MoveGenerator} and packed moves and must match it node for node.
+ * Positions where a player has already won have no moves.
+ *
+ * Cells are written in standard Abalone notation: rows A-I and diagonals 1-9,
+ * with E5 the center cell (0, 0).
+ *
+ * Usage: {@code Perft <depth> [start|belgian|german|midgame|endgame|<position code>] [--generator]}
+ */
+public final class Perft {
+    /** Position names accepted by {@link #position(String)} */
+    public static final List<String> POSITIONS =
+        Collections.unmodifiableList(Arrays.asList("start", "belgian", "german", "midgame", "endgame"));
+    
+    private Perft() {
+    }
+    
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: Perft <depth> [" + String.join("|", POSITIONS) + "|<position code>] [--generator]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        String name = "start";
+        boolean useGenerator = false;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--generator")) {
+                useGenerator = true;
+            } else {
+                name = args[i];
+            }
+        }
+        
+        AbaloneGame game = position(name);
+        long start = System.nanoTime();
+        Map<String, Long> divide = divide(game, depth, useGenerator);
+        long nanos = System.nanoTime() - start;
+        
+        long nodes = 0;
+        for (Map.Entry<String, Long> entry : divide.entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            nodes += entry.getValue();
+        }
+        System.out.println();
+        System.out.printf(Locale.US, "%s perft(%d) %s: %d nodes in %.3f s, %.0f nodes/s%n",
+            name, depth, useGenerator ? "generator" : "reference", nodes,
+            nanos / 1e9, nodes / Math.max(1e-9, nanos / 1e9));
+    }
+    
+    /**
+     * Reference perft through the validator
+     */
+    public static long reference(AbaloneGame game, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (game.checkWinner() != null) {
+            return 0;
+        }
+        List<MoveValidator.ValidatedMove> moves = legalMoves(game);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (MoveValidator.ValidatedMove move : moves) {
+            game.make(move);
+            nodes += reference(game, depth - 1);
+            game.unmake(move);
+        }
+        return nodes;
+    }
+    
+    /**
+     * Perft through the packed move generator
+     */
+    public static long generator(AbaloneGame game, int depth) {
+        return generator(game, depth, new int[Math.max(1, depth)][MoveGenerator.MAX_MOVES]);
+    }
+    
+    private static long generator(AbaloneGame game, int depth, int[][] buffers) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (game.checkWinner() != null) {
+            return 0;
+        }
+        int[] moves = buffers[depth - 1];
+        int count = MoveGenerator.generate(game.board(), game.getCurrentPlayer(), moves);
+        if (depth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            game.make(moves[i]);
+            nodes += generator(game, depth - 1, buffers);
+            game.unmake(moves[i]);
+        }
+        return nodes;
+    }
+    
+    /**
+     * Perft split by root move, keyed by move name in a stable order
+     */
+    public static Map<String, Long> divide(AbaloneGame game, int depth, boolean useGenerator) {
+        Map<String, Long> divide = new LinkedHashMap<>();
+        if (depth < 1 || game.checkWinner() != null) {
+            return divide;
+        }
+        AbaloneGame position = new AbaloneGame(game);
+        position.clearSelection();
+        if (useGenerator) {
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            int count = MoveGenerator.generate(position.board(), position.getCurrentPlayer(), moves);
+            for (int i = 0; i < count; i++) {
+                position.make(moves[i]);
+                divide.put(moveName(PackedMove.marbles(moves[i]), PackedMove.direction(moves[i])),
+                    generator(position, depth - 1));
+                position.unmake(moves[i]);
+            }
+        } else {
+            for (MoveValidator.ValidatedMove move : legalMoves(position)) {
+                position.make(move);
+                divide.put(moveName(move.marbles, move.direction), reference(position, depth - 1));
+                position.unmake(move);
+            }
+        }
+        return sorted(divide);
+    }
+    
+    /**
+     * Every legal move of the side to move, found by validating all 1-3 marble selections
+     */
+    public static List<MoveValidator.ValidatedMove> legalMoves(AbaloneGame game) {
+        Player player = game.getCurrentPlayer();
+        List<Hex> marbles = new ArrayList<>();
+        for (Hex pos : BitBoard.cells()) {
+            if (game.getPlayerAt(pos) == player) {
+                marbles.add(pos);
+            }
+        }
+        
+        MoveValidator validator = new MoveValidator(game.board(), player);
+        List<MoveValidator.ValidatedMove> moves = new ArrayList<>();
+        for (int i = 0; i < marbles.size(); i++) {
+            moves.addAll(validator.getValidMoves(Arrays.asList(marbles.get(i))));
+            for (int j = i + 1; j < marbles.size(); j++) {
+                moves.addAll(validator.getValidMoves(Arrays.asList(marbles.get(i), marbles.get(j))));
+                for (int k = j + 1; k < marbles.size(); k++) {
+                    moves.addAll(validator.getValidMoves(
+                        Arrays.asList(marbles.get(i), marbles.get(j), marbles.get(k))));
+                }
+            }
+        }
+        return moves;
+    }
+    
+    /**
+     * Named perft position: the game's start position, the Belgian and German
+     * daisy openings, a fixed midgame with two marbles already lost, or an
+     * endgame where pushes and ejections are available. Any other position
+     * can be given as its {@link PositionCodec} text.
+     */
+    public static AbaloneGame position(String name) {
+        switch (name) {
+            case "start":
+                return new AbaloneGame();
+            case "belgian":
+                return position("A1 A2 B1 B2 B3 C2 C3 G7 G8 H7 H8 H9 I8 I9",
+                                "A4 A5 B4 B5 B6 C5 C6 G4 G5 H4 H5 H6 I5 I6", Player.BLACK, 0, 0);
+            case "german":
+                return position("B1 B2 C1 C2 C3 D2 D3 F7 F8 G7 G8 G9 H8 H9",
+                                "B5 B6 C5 C6 C7 D6 D7 F3 F4 G3 G4 G5 H4 H5", Player.BLACK, 0, 0);
+            case "midgame":
+                return position("B2 C3 C4 D3 D4 D5 E4 E5 E6 F5 F6 G6 G7",
+                                "C5 D6 E7 E8 F4 F7 F8 G4 G5 G8 H5 H6 H7", Player.WHITE, 1, 1);
+            case "endgame":
+                return position("A2 B2 D1 D5 E2 E5 F2 F3 G4 I5 I7",
+                                "B5 C2 C4 C7 D6 D7 E9 F8 G8", Player.BLACK, 5, 3);
+            default:
+                if (name.length() == PositionCodec.TEXT_LENGTH) {
+                    return PositionCodec.fromText(name);
+                }
+                throw new IllegalArgumentException("Unknown perft position: " + name);
+        }
+    }
+    
+    /**
+     * Build a position from space-separated cell names and the marbles each side has pushed off
+     */
+    public static AbaloneGame position(String black, String white, Player sideToMove,
+                                       int blackScore, int whiteScore) {
+        BitBoard board = new BitBoard();
+        for (String cell : black.trim().split("\\s+")) {
+            board.set(cell(cell), Player.BLACK);
+        }
+        for (String cell : white.trim().split("\\s+")) {
+            board.set(cell(cell), Player.WHITE);
+        }
+        board.addScore(Player.BLACK, blackScore);
+        board.addScore(Player.WHITE, whiteScore);
+        
+        AbaloneGame game = new AbaloneGame();
+        game.loadPosition(board, sideToMove);
+        return game;
+    }
+    
+    /**
+     * Cell index of a name like "E5"
+     */
+    public static int cell(String name) {
+        int index = -1;
+        if (name.length() == 2) {
+            int row = Character.toUpperCase(name.charAt(0)) - 'A';
+            int diagonal = name.charAt(1) - '0';
+            index = BitBoard.indexOf(diagonal - 5, 4 - row);
+        }
+        if (index < 0) {
+            throw new IllegalArgumentException("Not a board cell: " + name);
+        }
+        return index;
+    }
+    
+    /**
+     * Name of a cell index, e.g. "E5" for the center
+     */
+    public static String cellName(int index) {
+        return "" + (char) ('A' + 4 - BitBoard.r(index)) + (BitBoard.q(index) + 5);
+    }
+    
+    /**
+     * Move name: the moving cells in sorted order, then the direction (0-5)
+     */
+    private static String moveName(List<Hex> marbles, int direction) {
+        List<String> cells = new ArrayList<>();
+        for (Hex marble : marbles) {
+            cells.add(cellName(BitBoard.indexOf(marble)));
+        }
+        Collections.sort(cells);
+        return String.join("", cells) + ">" + direction;
+    }
+    
+    private static Map<String, Long> sorted(Map<String, Long> divide) {
+        List<String> keys = new ArrayList<>(divide.keySet());
+        Collections.sort(keys);
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        for (String key : keys) {
+            sorted.put(key, divide.get(key));
+        }
+        return sorted;
+    }
+}
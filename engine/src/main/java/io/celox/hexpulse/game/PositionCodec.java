@@ -0,0 +1,173 @@
+package io.celox.hexpulse.game;
+
+import java.util.Arrays;
+
+/**
+ * Canonical binary form of a position: 17 bytes, or 23 URL-safe characters
+ * as text. Equal positions always encode to the same bytes, so a code can
+ * serve as a snapshot, a network sync check, a book key or a test fixture.
+ *
+ * Layout: one header byte with black's score in bits 0-2, white's score in
+ * bits 3-5 and the side to move in bit 6 (set when white moves); bit 7 is
+ * reserved and must be 0. Then black's and white's {@link BitBoard} masks as
+ * big-endian longs. The text form is that array in unpadded base64url.
+ */
+public final class PositionCodec {
+    /** Length of an encoded position in bytes */
+    public static final int BYTES = 17;
+    /** Length of an encoded position as text */
+    public static final int TEXT_LENGTH = (BYTES * 8 + 5) / 6;
+    
+    private static final int SCORE_MASK = 0x7;
+    private static final int WHITE_SCORE_SHIFT = 3;
+    private static final int WHITE_TO_MOVE = 1 << 6;
+    private static final int RESERVED = 1 << 7;
+    private static final char[] ALPHABET =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+    private static final int[] DIGIT = new int[128];
+    
+    static {
+        Arrays.fill(DIGIT, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DIGIT[ALPHABET[i]] = i;
+        }
+    }
+    
+    private PositionCodec() {
+    }
+    
+    /**
+     * Encode a game's cells, scores and side to move
+     */
+    public static byte[] encode(AbaloneGame game) {
+        return encode(game.board(), game.getCurrentPlayer());
+    }
+    
+    /**
+     * Encode a board with the given side to move
+     */
+    public static byte[] encode(BitBoard board, Player sideToMove) {
+        byte[] bytes = new byte[BYTES];
+        bytes[0] = (byte) (board.getScore(Player.BLACK)
+            | board.getScore(Player.WHITE) << WHITE_SCORE_SHIFT
+            | (sideToMove == Player.WHITE ? WHITE_TO_MOVE : 0));
+        putLong(bytes, 1, board.mask(Player.BLACK));
+        putLong(bytes, 9, board.mask(Player.WHITE));
+        return bytes;
+    }
+    
+    /**
+     * Decode a position into a new game without undo history
+     *
+     * @throws IllegalArgumentException if the bytes are not a valid position
+     */
+    public static AbaloneGame decode(byte[] bytes) {
+        if (bytes == null || bytes.length != BYTES) {
+            throw new IllegalArgumentException("Position code must be " + BYTES + " bytes");
+        }
+        int header = bytes[0] & 0xFF;
+        long black = getLong(bytes, 1);
+        long white = getLong(bytes, 9);
+        if ((header & RESERVED) != 0) {
+            throw new IllegalArgumentException("Unknown position code format");
+        }
+        if ((black & ~BitBoard.ALL_CELLS) != 0 || (white & ~BitBoard.ALL_CELLS) != 0 || (black & white) != 0) {
+            throw new IllegalArgumentException("Position code has invalid cells");
+        }
+        
+        BitBoard board = new BitBoard();
+        for (long bits = black; bits != 0; bits &= bits - 1) {
+            board.set(Long.numberOfTrailingZeros(bits), Player.BLACK);
+        }
+        for (long bits = white; bits != 0; bits &= bits - 1) {
+            board.set(Long.numberOfTrailingZeros(bits), Player.WHITE);
+        }
+        board.addScore(Player.BLACK, header & SCORE_MASK);
+        board.addScore(Player.WHITE, header >>> WHITE_SCORE_SHIFT & SCORE_MASK);
+        
+        AbaloneGame game = new AbaloneGame();
+        game.loadPosition(board, (header & WHITE_TO_MOVE) != 0 ? Player.WHITE : Player.BLACK);
+        return game;
+    }
+    
+    /**
+     * Encode a game as URL-safe text
+     */
+    public static String toText(AbaloneGame game) {
+        return toText(encode(game));
+    }
+    
+    /**
+     * Encode a board with the given side to move as URL-safe text
+     */
+    public static String toText(BitBoard board, Player sideToMove) {
+        return toText(encode(board, sideToMove));
+    }
+    
+    /**
+     * Decode a position from its URL-safe text form
+     *
+     * @throws IllegalArgumentException if the text is not a valid position
+     */
+    public static AbaloneGame fromText(String text) {
+        if (text == null || text.length() != TEXT_LENGTH) {
+            throw new IllegalArgumentException("Position code must be " + TEXT_LENGTH + " characters");
+        }
+        byte[] bytes = new byte[BYTES];
+        int buffer = 0;
+        int bits = 0;
+        int index = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int digit = c < DIGIT.length ? DIGIT[c] : -1;
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid character in position code: " + c);
+            }
+            buffer = buffer << 6 | digit;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                bytes[index++] = (byte) (buffer >>> bits);
+                buffer &= (1 << bits) - 1;
+            }
+        }
+        if (buffer != 0) {
+            throw new IllegalArgumentException("Position code is not canonical");
+        }
+        return decode(bytes);
+    }
+    
+    private static String toText(byte[] bytes) {
+        StringBuilder text = new StringBuilder(TEXT_LENGTH);
+        int buffer = 0;
+        int bits = 0;
+        for (byte b : bytes) {
+            buffer = buffer << 8 | (b & 0xFF);
+            bits += 8;
+            while (bits >= 6) {
+                bits -= 6;
+                text.append(ALPHABET[buffer >>> bits]);
+                buffer &= (1 << bits) - 1;
+            }
+        }
+        if (bits > 0) {
+            text.append(ALPHABET[buffer << (6 - bits)]);
+        }
+        return text.toString();
+    }
+    
+    private static void putLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+    
+    private static long getLong(byte[] bytes, int offset) {
+        long value = 0L;
+        for (int i = 0; i < 8; i++) {
+            value = value << 8 | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
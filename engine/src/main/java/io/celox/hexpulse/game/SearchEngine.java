@@ -0,0 +1,23 @@
+package io.celox.hexpulse.game;
+
+/**
+ * A search backend {@link AbaloneAI} routes its move searches to, once the
+ * opening book and the difficulty's random moves have had their say.
+ *
+ * The engine gets the search context with the root moves already generated
+ * into {@code ctx.moves[0]}, and must stop within the time limit or as soon
+ * as {@code ctx.stop} is set. It returns the chosen move and leaves its
+ * statistics in the context: the total {@code nodes} of all threads, the
+ * {@code completedDepth}, the {@code bestScore} in evaluation units and the
+ * expected line in {@code previousPv}. While searching it may report
+ * progress to {@code ctx.handle}.
+ */
+interface SearchEngine {
+    /**
+     * Pick one of the root moves for the side to move
+     *
+     * @param moveCount number of root moves in {@code ctx.moves[0]}
+     * @param threads number of threads the search may use
+     */
+    int search(AbaloneAI.SearchContext ctx, int moveCount, Player player, long timeLimit, int threads);
+}
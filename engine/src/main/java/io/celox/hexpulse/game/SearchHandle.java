@@ -0,0 +1,136 @@
+package io.celox.hexpulse.game;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Control over one asynchronous search started by {@link AbaloneAI#getBestMoveAsync}.
+ *
+ * The search reports each completed iteration through
+ * {@link AbaloneAI.MoveCallback#onSearchProgress} and delivers exactly one
+ * final move, unless it is cancelled first. {@link #stop()} ends it early with
+ * the best move found so far; {@link #cancel()} discards it, and no callback
+ * runs after cancel returns true. Callbacks and cancel share a lock, so a
+ * cancel that races with a callback waits for it to return. The search
+ * threads check the stop signal at every node, so either takes effect within
+ * milliseconds.
+ */
+public final class SearchHandle {
+    private static final int RUNNING = 0;
+    private static final int DONE = 1;
+    private static final int CANCELLED = 2;
+    
+    private final AbaloneAI.MoveCallback callback;
+    private final AtomicBoolean stop = new AtomicBoolean();
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+    private final CountDownLatch finished = new CountDownLatch(1);
+    /** Held while changing state and while running callbacks */
+    private final Object lock = new Object();
+    private volatile SearchInfo latest;
+    private volatile Future<?> task;
+    
+    SearchHandle(AbaloneAI.MoveCallback callback) {
+        this.callback = callback;
+    }
+    
+    /**
+     * Finish the search now and deliver the best move found so far
+     */
+    public void stop() {
+        stop.set(true);
+    }
+    
+    /**
+     * Abandon the search without delivering a move
+     *
+     * @return true if no result will be delivered, false if it already was
+     */
+    public boolean cancel() {
+        boolean cancelled;
+        synchronized (lock) {
+            cancelled = state.compareAndSet(RUNNING, CANCELLED);
+        }
+        if (cancelled) {
+            stop.set(true);
+            Future<?> running = task;
+            if (running != null && running.cancel(false)) {
+                finish(); // Never started, so no search thread will release waiters
+            }
+            return true;
+        }
+        return state.get() == CANCELLED;
+    }
+    
+    public boolean isCancelled() {
+        return state.get() == CANCELLED;
+    }
+    
+    /**
+     * Whether the search has delivered its move or been cancelled
+     */
+    public boolean isDone() {
+        return state.get() != RUNNING;
+    }
+    
+    /**
+     * Last completed iteration, or null before the first one
+     */
+    public SearchInfo getLatest() {
+        return latest;
+    }
+    
+    /**
+     * Wait until the search thread has let go of the search, e.g. after a cancel
+     *
+     * @return true if it has, false if the timeout passed first
+     */
+    public boolean await(long timeoutMillis) throws InterruptedException {
+        return finished.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    AtomicBoolean stopSignal() {
+        return stop;
+    }
+    
+    void setTask(Future<?> task) {
+        this.task = task;
+        if (isCancelled() && task.cancel(false)) {
+            finish();
+        }
+    }
+    
+    void report(SearchInfo info) {
+        synchronized (lock) {
+            if (state.get() == RUNNING) {
+                latest = info;
+                callback.onSearchProgress(info);
+            }
+        }
+    }
+    
+    void deliver(AbaloneAI.Move move) {
+        synchronized (lock) {
+            if (state.compareAndSet(RUNNING, DONE)) {
+                callback.onMoveCalculated(move);
+            }
+        }
+    }
+    
+    void fail(String error) {
+        synchronized (lock) {
+            if (state.compareAndSet(RUNNING, DONE)) {
+                callback.onMoveError(error);
+            }
+        }
+    }
+    
+    /**
+     * Release waiters once the search thread is done with the search
+     */
+    void finish() {
+        finished.countDown();
+    }
+}
@@ -0,0 +1,55 @@
+package io.celox.hexpulse.game;
+
+/**
+ * Result of one completed iterative deepening iteration, streamed to the
+ * caller of an asynchronous search while it is still running
+ */
+public final class SearchInfo {
+    private final AbaloneAI.Move move;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedMillis;
+    
+    SearchInfo(AbaloneAI.Move move, int score, int depth, long nodes, long elapsedMillis) {
+        this.move = move;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    /**
+     * Best move found by this iteration
+     */
+    public AbaloneAI.Move getMove() {
+        return move;
+    }
+    
+    /**
+     * Score of the best move from the searching side's view
+     */
+    public int getScore() {
+        return score;
+    }
+    
+    public int getDepth() {
+        return depth;
+    }
+    
+    /**
+     * Nodes searched by the main search thread so far
+     */
+    public long getNodes() {
+        return nodes;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return "depth " + depth + " score " + score + " nodes " + nodes + " " + move;
+    }
+}
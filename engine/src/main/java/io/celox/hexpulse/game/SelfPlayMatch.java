@@ -0,0 +1,148 @@
+package io.celox.hexpulse.game;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Plays two AI settings against each other to measure their strength, at
+ * the time budget of their difficulty. Colors alternate between games, and
+ * each game starts from a few random plies so the games differ.
+ *
+ * An engine is a difficulty with optional settings joined by '+':
+ * {@code threads=N} for the number of search threads, {@code fullwidth} to
+ * switch off null-move pruning and late move reductions, and
+ * {@code montecarlo} or {@code minimax} to pick the search backend, e.g.
+ * {@code hard+threads=1} or {@code medium+montecarlo}.
+ *
+ * Usage: {@code SelfPlayMatch <engine> <engine> [games] [opening plies] [seed]}
+ */
+public final class SelfPlayMatch {
+    public static final int DEFAULT_GAMES = 10;
+    public static final int DEFAULT_OPENING_PLIES = 4;
+    /** Games still running after this many plies count as draws */
+    public static final int PLY_LIMIT = 200;
+    
+    private final String first;
+    private final String second;
+    private int wins;
+    private int losses;
+    private int draws;
+    private final long[] depth = new long[2];
+    private final long[] millis = new long[2];
+    private final int[] searches = new int[2];
+    
+    private SelfPlayMatch(String first, String second) {
+        this.first = first;
+        this.second = second;
+    }
+    
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: SelfPlayMatch <engine> <engine> [games] [opening plies] [seed]");
+            return;
+        }
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_GAMES;
+        int openingPlies = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_OPENING_PLIES;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 1L;
+        
+        SelfPlayMatch match = new SelfPlayMatch(args[0], args[1]);
+        match.play(games, openingPlies, new Random(seed));
+        System.out.println(match);
+    }
+    
+    /**
+     * An AI set up from an engine description
+     *
+     * @throws IllegalArgumentException for an unknown difficulty or setting
+     */
+    static AbaloneAI engine(String description) {
+        String[] parts = description.split("\\+");
+        AIDifficulty difficulty = AIDifficulty.valueOf(parts[0].toUpperCase(Locale.US));
+        int threads = difficulty.getSearchThreads();
+        boolean fullWidth = false;
+        Boolean monteCarlo = null;
+        for (int i = 1; i < parts.length; i++) {
+            String part = parts[i].toLowerCase(Locale.US);
+            if (part.startsWith("threads=")) {
+                threads = Integer.parseInt(part.substring("threads=".length()));
+            } else if (part.equals("fullwidth")) {
+                fullWidth = true;
+            } else if (part.equals("montecarlo") || part.equals("minimax")) {
+                monteCarlo = part.equals("montecarlo");
+            } else {
+                throw new IllegalArgumentException("Unknown engine setting: " + parts[i]);
+            }
+        }
+        
+        AbaloneAI ai = new AbaloneAI(difficulty, threads);
+        if (fullWidth) {
+            ai.setSelectiveSearch(false);
+        }
+        if (monteCarlo != null) {
+            ai.setMonteCarlo(monteCarlo);
+        }
+        return ai;
+    }
+    
+    /**
+     * A position after a number of random moves from the start
+     */
+    public static AbaloneGame randomOpening(Random random, int plies) {
+        AbaloneGame position = new AbaloneGame();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int i = 0; i < plies && position.checkWinner() == null; i++) {
+            int count = MoveGenerator.generate(position.board(), position.getCurrentPlayer(), moves);
+            position.make(moves[random.nextInt(count)]);
+        }
+        return position;
+    }
+    
+    private void play(int games, int openingPlies, Random random) {
+        for (int game = 0; game < games; game++) {
+            // The first engine plays black in even games
+            Player firstSide = game % 2 == 0 ? Player.BLACK : Player.WHITE;
+            AbaloneAI[] ais = {engine(first), engine(second)};
+            AbaloneGame position = randomOpening(random, openingPlies);
+            
+            int ply = 0;
+            for (; ply < PLY_LIMIT && position.checkWinner() == null; ply++) {
+                Player side = position.getCurrentPlayer();
+                int engine = side == firstSide ? 0 : 1;
+                long start = System.currentTimeMillis();
+                AbaloneAI.Move move = ais[engine].getBestMove(position, side);
+                if (move == null) {
+                    break;
+                }
+                millis[engine] += System.currentTimeMillis() - start;
+                depth[engine] += ais[engine].getLastSearchDepth();
+                searches[engine]++;
+                position.make(move.packed);
+            }
+            
+            Player winner = position.checkWinner();
+            if (winner == null) {
+                draws++;
+            } else if (winner == firstSide) {
+                wins++;
+            } else {
+                losses++;
+            }
+            System.out.printf(Locale.US, "game %d: %s as %s, %s after %d plies%n", game + 1, first, firstSide,
+                winner == null ? "draw" : winner + " wins", ply);
+            for (AbaloneAI ai : ais) {
+                ai.shutdown();
+            }
+        }
+    }
+    
+    /**
+     * Result from the first engine's side, with the average depth and time per move of both
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s vs %s: +%d -%d =%d, depth %.2f vs %.2f, %d vs %d ms per move",
+            first, second, wins, losses, draws,
+            (double) depth[0] / Math.max(1, searches[0]), (double) depth[1] / Math.max(1, searches[1]),
+            millis[0] / Math.max(1, searches[0]), millis[1] / Math.max(1, searches[1]));
+    }
+}
@@ -0,0 +1,158 @@
+package io.celox.hexpulse.game;
+
+/**
+ * The 12 symmetries of the hexagonal board: six rotations, each optionally
+ * after a reflection, as permutation tables over cell indices and
+ * {@link Hex#DIRECTIONS}.
+ *
+ * Mirrored and rotated positions play the same, so keying positions by
+ * their canonical orientation lets them share one entry. The canonical
+ * orientation is the symmetry giving the smallest (black, white) mask pair;
+ * moves found there are turned back with the {@link #inverse} symmetry.
+ * Colors, scores and the side to move are never changed.
+ *
+ * Symmetry {@code s} rotates {@code s % 6} times by 60 degrees, after
+ * reflecting in the q axis when {@code s >= 6}; 0 is the identity.
+ */
+public final class Symmetry {
+    public static final int COUNT = 12;
+    public static final int IDENTITY = 0;
+    
+    private static final int[][] CELLS = new int[COUNT][BitBoard.CELL_COUNT];
+    private static final int[][] DIRECTIONS = new int[COUNT][6];
+    private static final int[] INVERSE = new int[COUNT];
+    
+    static {
+        for (int s = 0; s < COUNT; s++) {
+            for (int i = 0; i < BitBoard.CELL_COUNT; i++) {
+                int[] qr = apply(s, BitBoard.q(i), BitBoard.r(i));
+                CELLS[s][i] = BitBoard.indexOf(qr[0], qr[1]);
+            }
+            for (int d = 0; d < 6; d++) {
+                int[] qr = apply(s, Hex.DIRECTIONS[d][0], Hex.DIRECTIONS[d][1]);
+                for (int e = 0; e < 6; e++) {
+                    if (Hex.DIRECTIONS[e][0] == qr[0] && Hex.DIRECTIONS[e][1] == qr[1]) {
+                        DIRECTIONS[s][d] = e;
+                    }
+                }
+            }
+        }
+        for (int s = 0; s < COUNT; s++) {
+            for (int t = 0; t < COUNT; t++) {
+                if (CELLS[t][CELLS[s][0]] == 0 && CELLS[t][CELLS[s][1]] == 1 && CELLS[t][CELLS[s][5]] == 5) {
+                    INVERSE[s] = t;
+                }
+            }
+        }
+    }
+    
+    private Symmetry() {
+    }
+    
+    /**
+     * Axial coordinates or direction vector under a symmetry; both maps are linear
+     */
+    private static int[] apply(int symmetry, int q, int r) {
+        if (symmetry >= 6) {
+            r = -q - r;
+        }
+        for (int i = 0; i < symmetry % 6; i++) {
+            int rotated = -r;
+            r = q + r;
+            q = rotated;
+        }
+        return new int[] {q, r};
+    }
+    
+    /**
+     * Cell index a cell maps to
+     */
+    public static int cell(int symmetry, int index) {
+        return CELLS[symmetry][index];
+    }
+    
+    /**
+     * Direction a direction maps to
+     */
+    public static int direction(int symmetry, int direction) {
+        return DIRECTIONS[symmetry][direction];
+    }
+    
+    /**
+     * The symmetry that undoes a symmetry
+     */
+    public static int inverse(int symmetry) {
+        return INVERSE[symmetry];
+    }
+    
+    /**
+     * A cell mask under a symmetry
+     */
+    public static long transform(long cells, int symmetry) {
+        int[] map = CELLS[symmetry];
+        long result = 0L;
+        for (long bits = cells; bits != 0; bits &= bits - 1) {
+            result |= 1L << map[Long.numberOfTrailingZeros(bits)];
+        }
+        return result;
+    }
+    
+    /**
+     * A packed move under a symmetry, packed as the generator would pack the
+     * mapped move; the push outcome is unchanged
+     */
+    public static int transformMove(int move, int symmetry) {
+        if (move == PackedMove.NONE) {
+            return PackedMove.NONE;
+        }
+        long cells = 0L;
+        int cell = PackedMove.origin(move);
+        for (int i = 0; i < PackedMove.length(move); i++) {
+            cells |= 1L << CELLS[symmetry][cell];
+            cell = BitBoard.neighbor(cell, PackedMove.axis(move));
+        }
+        return PackedMove.pack(cells, PackedMove.length(move), DIRECTIONS[symmetry][PackedMove.direction(move)],
+            PackedMove.pushedCount(move), PackedMove.ejects(move));
+    }
+    
+    /**
+     * The symmetry taking a board to its canonical orientation
+     */
+    public static int canonical(BitBoard board) {
+        long black = board.mask(Player.BLACK);
+        long white = board.mask(Player.WHITE);
+        int best = IDENTITY;
+        long bestBlack = black;
+        long bestWhite = white;
+        for (int s = 1; s < COUNT; s++) {
+            long b = transform(black, s);
+            int order = Long.compareUnsigned(b, bestBlack);
+            if (order > 0) {
+                continue;
+            }
+            long w = transform(white, s);
+            if (order < 0 || Long.compareUnsigned(w, bestWhite) < 0) {
+                best = s;
+                bestBlack = b;
+                bestWhite = w;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Zobrist hash of a position under a symmetry
+     */
+    public static long hash(BitBoard board, Player sideToMove, int symmetry) {
+        return Zobrist.hash(transform(board.mask(Player.BLACK), symmetry), transform(board.mask(Player.WHITE), symmetry),
+            board.getScore(Player.BLACK), board.getScore(Player.WHITE), sideToMove);
+    }
+    
+    /**
+     * Zobrist hash of a position in its canonical orientation, equal for all
+     * symmetric positions
+     */
+    public static long canonicalHash(BitBoard board, Player sideToMove) {
+        return hash(board, sideToMove, canonical(board));
+    }
+}
@@ -0,0 +1,221 @@
+package io.celox.hexpulse.game;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Fixed-size transposition table for the AI search.
+ *
+ * Entries live in one preallocated {@code long[]}, two longs per entry: the
+ * position key XOR the data, then the data. A torn write by another thread
+ * then simply fails the key check instead of returning a mixed entry.
+ *
+ * Data layout (low to high bits):
+ * best move (16) | score (32) | remaining depth (8) | bound (2) | search age (6)
+ *
+ * Entries are grouped in buckets of two. The first slot is depth-preferred and
+ * only gives way to an equal or deeper search or to an entry from an older
+ * search; the second slot is always-replace and takes everything else,
+ * including entries pushed out of the first slot.
+ *
+ * The table is shared without locks by the threads of a parallel search.
+ * Statistics are plain counters and only approximate in that case.
+ */
+public final class TranspositionTable {
+    /** Bound types; 0 marks an empty slot */
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+    
+    private static final int BUCKET_LONGS = 4;
+    private static final int SCORE_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 48;
+    private static final int BOUND_SHIFT = 56;
+    private static final int AGE_SHIFT = 58;
+    private static final int AGE_MASK = 0x3F;
+    
+    private final long[] table;
+    private final int bucketMask;
+    private int age;
+    
+    private long probes;
+    private long hits;
+    private long stores;
+    private long overwrites;
+    
+    /**
+     * Create a table using at most the given number of megabytes
+     */
+    public TranspositionTable(int megabytes) {
+        long bytes = Math.max(1, megabytes) * 1024L * 1024L;
+        int buckets = Integer.highestOneBit((int) Math.min(1 << 30, bytes / (BUCKET_LONGS * 8)));
+        table = new long[buckets * BUCKET_LONGS];
+        bucketMask = buckets - 1;
+    }
+    
+    /**
+     * Start a new search: entries from earlier searches become replaceable
+     */
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+    
+    /**
+     * Drop all entries and reset the statistics
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        age = 0;
+        resetStats();
+    }
+    
+    /**
+     * Look up a position
+     *
+     * @return the entry data, or 0 if the position is not stored
+     */
+    public long probe(long key) {
+        probes++;
+        int base = bucketIndex(key);
+        for (int slot = base; slot < base + BUCKET_LONGS; slot += 2) {
+            long data = table[slot + 1];
+            if (bound(data) != 0 && (table[slot] ^ data) == key) {
+                hits++;
+                return data;
+            }
+        }
+        return 0L;
+    }
+    
+    /**
+     * Store a search result for a position
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        stores++;
+        long data = (move & 0xFFFFL)
+            | (score & 0xFFFFFFFFL) << SCORE_SHIFT
+            | (long) depth << DEPTH_SHIFT
+            | (long) bound << BOUND_SHIFT
+            | (long) age << AGE_SHIFT;
+        
+        int base = bucketIndex(key);
+        long deepData = table[base + 1];
+        boolean deepEmpty = bound(deepData) == 0;
+        boolean deepSameKey = !deepEmpty && (table[base] ^ deepData) == key;
+        if (deepEmpty || deepSameKey || depth >= depth(deepData) || age(deepData) != age) {
+            if (!deepEmpty && !deepSameKey) {
+                // Demote the old deep entry to the always-replace slot
+                write(base + 2, table[base] ^ deepData, deepData);
+            }
+            write(base, key, data);
+        } else {
+            write(base + 2, key, data);
+        }
+    }
+    
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+    
+    public static int score(long data) {
+        return (int) (data >>> SCORE_SHIFT);
+    }
+    
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+    
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+    
+    private static int age(long data) {
+        return (int) (data >>> AGE_SHIFT) & AGE_MASK;
+    }
+    
+    private int bucketIndex(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) * BUCKET_LONGS;
+    }
+    
+    private void write(int slot, long key, long data) {
+        long old = table[slot + 1];
+        if (bound(old) != 0 && age(old) == age && (table[slot] ^ old) != key) {
+            overwrites++;
+        }
+        table[slot] = key ^ data;
+        table[slot + 1] = data;
+    }
+    
+    /**
+     * Number of entries the table can hold
+     */
+    public int capacity() {
+        return table.length / 2;
+    }
+    
+    /**
+     * Share of slots filled by the current search, sampled over the first buckets
+     */
+    public double usage() {
+        int sampled = Math.min(table.length, 1000 * BUCKET_LONGS);
+        int used = 0;
+        for (int slot = 0; slot < sampled; slot += 2) {
+            long data = table[slot + 1];
+            if (bound(data) != 0 && age(data) == age) {
+                used++;
+            }
+        }
+        return used / (sampled / 2.0);
+    }
+    
+    public long getProbes() {
+        return probes;
+    }
+    
+    public long getHits() {
+        return hits;
+    }
+    
+    public long getMisses() {
+        return probes - hits;
+    }
+    
+    public long getStores() {
+        return stores;
+    }
+    
+    /**
+     * Number of stores that evicted an entry for a different position from the
+     * current search; a high rate means the table is too small
+     */
+    public long getOverwrites() {
+        return overwrites;
+    }
+    
+    public double getHitRate() {
+        return probes == 0 ? 0.0 : (double) hits / probes;
+    }
+    
+    public double getMissRate() {
+        return probes == 0 ? 0.0 : (double) getMisses() / probes;
+    }
+    
+    public double getOverwriteRate() {
+        return stores == 0 ? 0.0 : (double) overwrites / stores;
+    }
+    
+    public void resetStats() {
+        probes = 0;
+        hits = 0;
+        stores = 0;
+        overwrites = 0;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+            "TT[%d entries, probes=%d, hit=%.1f%%, miss=%.1f%%, overwrite=%.1f%%, usage=%.1f%%]",
+            capacity(), probes, getHitRate() * 100, getMissRate() * 100,
+            getOverwriteRate() * 100, usage() * 100);
+    }
+}
@@ -0,0 +1,103 @@
+package io.celox.hexpulse.game;
+
+/**
+ * Zobrist keys for 64-bit position hashes.
+ *
+ * A position hash is the XOR of one key per occupied cell, one key per
+ * non-zero score and the side key when WHITE is to move, so the empty board
+ * with BLACK to move hashes to 0. Keys come from a fixed seed and are the same
+ * on every device and every run, which keeps hashes comparable between
+ * clients and across app versions.
+ */
+public final class Zobrist {
+    /** Toggled into the hash whenever the side to move changes */
+    public static final long SIDE_TO_MOVE;
+    
+    /** Highest score tracked: every opponent marble pushed off */
+    private static final int MAX_SCORE = 14;
+    private static final long SEED = 0x48657850756C7365L;
+    
+    private static final long[] BLACK_CELLS = new long[BitBoard.CELL_COUNT];
+    private static final long[] WHITE_CELLS = new long[BitBoard.CELL_COUNT];
+    private static final long[] BLACK_SCORES = new long[MAX_SCORE + 1];
+    private static final long[] WHITE_SCORES = new long[MAX_SCORE + 1];
+    
+    static {
+        long state = SEED;
+        for (int i = 0; i < BitBoard.CELL_COUNT; i++) {
+            BLACK_CELLS[i] = splitMix64(state += 0x9E3779B97F4A7C15L);
+            WHITE_CELLS[i] = splitMix64(state += 0x9E3779B97F4A7C15L);
+        }
+        // Score 0 keeps key 0 so a fresh board needs no score keys
+        for (int score = 1; score <= MAX_SCORE; score++) {
+            BLACK_SCORES[score] = splitMix64(state += 0x9E3779B97F4A7C15L);
+            WHITE_SCORES[score] = splitMix64(state += 0x9E3779B97F4A7C15L);
+        }
+        SIDE_TO_MOVE = splitMix64(state + 0x9E3779B97F4A7C15L);
+    }
+    
+    private Zobrist() {
+    }
+    
+    /**
+     * Key for a player's marble on a cell index, 0 for EMPTY
+     */
+    public static long cell(Player player, int index) {
+        switch (player) {
+            case BLACK:
+                return BLACK_CELLS[index];
+            case WHITE:
+                return WHITE_CELLS[index];
+            default:
+                return 0L;
+        }
+    }
+    
+    /**
+     * Key for a player's score, 0 for a score of 0
+     */
+    public static long score(Player player, int score) {
+        switch (player) {
+            case BLACK:
+                return BLACK_SCORES[score];
+            case WHITE:
+                return WHITE_SCORES[score];
+            default:
+                return 0L;
+        }
+    }
+    
+    /**
+     * Hash a position from scratch. The incremental hash kept by {@link BitBoard}
+     * always equals this for the side to move it was played with.
+     */
+    public static long hash(BitBoard board, Player sideToMove) {
+        return hash(board.mask(Player.BLACK), board.mask(Player.WHITE),
+            board.getScore(Player.BLACK), board.getScore(Player.WHITE), sideToMove);
+    }
+    
+    /**
+     * Hash a position given as marble masks and scores
+     */
+    public static long hash(long black, long white, int blackScore, int whiteScore, Player sideToMove) {
+        long hash = 0L;
+        for (long bits = black; bits != 0; bits &= bits - 1) {
+            hash ^= BLACK_CELLS[Long.numberOfTrailingZeros(bits)];
+        }
+        for (long bits = white; bits != 0; bits &= bits - 1) {
+            hash ^= WHITE_CELLS[Long.numberOfTrailingZeros(bits)];
+        }
+        hash ^= BLACK_SCORES[blackScore];
+        hash ^= WHITE_SCORES[whiteScore];
+        if (sideToMove == Player.WHITE) {
+            hash ^= SIDE_TO_MOVE;
+        }
+        return hash;
+    }
+    
+    private static long splitMix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,183 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for in-place make/unmake on the game state.
+ */
+public class AbaloneGameTest {
+    
+    @Test
+    public void makeUnmake_restoresEveryMoveAndReply() {
+        AbaloneGame game = new AbaloneGame();
+        BitBoard before = new BitBoard(game.board());
+        
+        for (MoveValidator.ValidatedMove move : legalMoves(game)) {
+            game.make(move);
+            assertEquals(Player.WHITE, game.getCurrentPlayer());
+            BitBoard afterMove = new BitBoard(game.board());
+            
+            for (MoveValidator.ValidatedMove reply : legalMoves(game)) {
+                game.make(reply);
+                game.unmake(reply);
+                assertEquals(afterMove, game.board());
+                assertEquals(Player.WHITE, game.getCurrentPlayer());
+            }
+            
+            game.unmake(move);
+            assertEquals(before, game.board());
+            assertEquals(Player.BLACK, game.getCurrentPlayer());
+        }
+    }
+    
+    @Test
+    public void passTurn_changesOnlyTheSideToMove() {
+        AbaloneGame game = Perft.position("midgame");
+        BitBoard before = new BitBoard(game.board());
+        long hash = game.positionHash();
+        
+        game.passTurn();
+        assertEquals(Player.BLACK, game.getCurrentPlayer());
+        assertNotEquals(hash, game.positionHash());
+        
+        game.passTurn();
+        assertEquals(Player.WHITE, game.getCurrentPlayer());
+        assertEquals(hash, game.positionHash());
+        assertEquals(before, game.board());
+    }
+    
+    @Test
+    public void makeUnmake_restoresEjectedMarbleAndScore() {
+        AbaloneGame game = new AbaloneGame();
+        BitBoard board = game.board();
+        board.clear();
+        board.set(Hex.of(1, 0), Player.BLACK);
+        board.set(Hex.of(2, 0), Player.BLACK);
+        board.set(Hex.of(3, 0), Player.BLACK);
+        board.set(Hex.of(4, 0), Player.WHITE);
+        board.addScore(Player.BLACK, 2);
+        BitBoard before = new BitBoard(board);
+        
+        MoveValidator.ValidatedMove push = null;
+        for (MoveValidator.ValidatedMove move : new MoveValidator(board, Player.BLACK)
+                .getValidMoves(Arrays.asList(Hex.of(1, 0), Hex.of(2, 0), Hex.of(3, 0)))) {
+            if (move.isPush) {
+                push = move;
+            }
+        }
+        assertNotNull(push);
+        
+        game.make(push);
+        assertEquals(3, board.getScore(Player.BLACK));
+        assertEquals(0, board.count(Player.WHITE));
+        
+        game.unmake(push);
+        assertEquals(before, board);
+        assertEquals(Player.BLACK, game.getCurrentPlayer());
+    }
+    
+    @Test
+    public void loadPosition_restartsMoveNumbers() {
+        AbaloneGame game = new AbaloneGame();
+        for (int ply = 0; ply < 2; ply++) {
+            MoveValidator.ValidatedMove move = legalMoves(game).get(0);
+            for (Hex marble : move.marbles) {
+                assertTrue(game.selectMarble(marble));
+            }
+            assertTrue(game.makeMove(move.targetPosition));
+        }
+        assertEquals(2, game.getCurrentMoveNumber());
+        
+        game.loadPosition(Perft.position("midgame").board(), Player.WHITE);
+        assertEquals(0, game.getCurrentMoveNumber());
+        assertFalse(game.canUndo());
+    }
+    
+    @Test
+    public void undoRedo_walksLongGameBothWays() {
+        Random random = new Random(19);
+        AbaloneGame game = new AbaloneGame();
+        List<BitBoard> boards = new ArrayList<>();
+        boards.add(new BitBoard(game.board()));
+        
+        // Well past the old ten-move history limit
+        for (int ply = 0; ply < 120 && game.checkWinner() == null; ply++) {
+            List<MoveValidator.ValidatedMove> moves = legalMoves(game);
+            MoveValidator.ValidatedMove move = moves.get(random.nextInt(moves.size()));
+            for (MoveValidator.ValidatedMove candidate : moves) {
+                if (candidate.isPush && random.nextBoolean()) {
+                    move = candidate;
+                    break;
+                }
+            }
+            for (Hex marble : move.marbles) {
+                assertTrue(game.selectMarble(marble));
+            }
+            assertTrue(game.makeMove(move.targetPosition));
+            boards.add(new BitBoard(game.board()));
+        }
+        int plies = boards.size() - 1;
+        assertEquals(plies, game.getUndoCount());
+        
+        for (int ply = plies - 1; ply >= 0; ply--) {
+            assertTrue(game.undoLastMove());
+            assertEquals(boards.get(ply), game.board());
+            assertEquals(boards.get(ply).hash(), game.positionHash());
+            assertEquals(ply, game.getCurrentMoveNumber());
+        }
+        assertFalse(game.undoLastMove());
+        assertEquals(Player.BLACK, game.getCurrentPlayer());
+        
+        for (int ply = 1; ply <= plies; ply++) {
+            assertTrue(game.redoMove());
+            assertEquals(boards.get(ply), game.board());
+        }
+        assertFalse(game.redoMove());
+        
+        // A new move after undoing drops the rest of the line
+        assertTrue(game.undoMoves(3));
+        assertEquals(3, game.getRedoCount());
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        MoveGenerator.generate(game.board(), game.getCurrentPlayer(), moves);
+        for (Hex marble : PackedMove.marbles(moves[0])) {
+            assertTrue(game.selectMarble(marble));
+        }
+        assertTrue(game.makeMove(PackedMove.target(moves[0])));
+        assertFalse(game.canRedo());
+        assertEquals(plies - 2, game.getUndoCount());
+    }
+    
+    /**
+     * Every legal move of the side to move, found by validating all 1-3 marble selections
+     */
+    static List<MoveValidator.ValidatedMove> legalMoves(AbaloneGame game) {
+        Player player = game.getCurrentPlayer();
+        List<Hex> marbles = new ArrayList<>();
+        for (Hex pos : BitBoard.cells()) {
+            if (game.getPlayerAt(pos) == player) {
+                marbles.add(pos);
+            }
+        }
+        
+        MoveValidator validator = new MoveValidator(game.board(), player);
+        List<MoveValidator.ValidatedMove> moves = new ArrayList<>();
+        for (int i = 0; i < marbles.size(); i++) {
+            moves.addAll(validator.getValidMoves(Arrays.asList(marbles.get(i))));
+            for (int j = i + 1; j < marbles.size(); j++) {
+                moves.addAll(validator.getValidMoves(Arrays.asList(marbles.get(i), marbles.get(j))));
+                for (int k = j + 1; k < marbles.size(); k++) {
+                    moves.addAll(validator.getValidMoves(
+                        Arrays.asList(marbles.get(i), marbles.get(j), marbles.get(k))));
+                }
+            }
+        }
+        return moves;
+    }
+}
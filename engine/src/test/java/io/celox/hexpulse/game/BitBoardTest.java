@@ -0,0 +1,224 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the bitboard position.
+ */
+public class BitBoardTest {
+    
+    @Test
+    public void cellIndex_roundTrips() {
+        for (int i = 0; i < BitBoard.CELL_COUNT; i++) {
+            Hex hex = BitBoard.hexAt(i);
+            assertEquals(i, BitBoard.indexOf(hex));
+            assertEquals(hex.q, BitBoard.q(i));
+            assertEquals(hex.r, BitBoard.r(i));
+        }
+        assertEquals(-1, BitBoard.indexOf(Hex.of(5, 0)));
+        assertEquals(-1, BitBoard.indexOf(Hex.of(4, 1)));
+        assertEquals(-1, BitBoard.indexOf(Hex.of(-3, -2)));
+    }
+    
+    @Test
+    public void hexOf_sharesBoardAndRingInstances() {
+        for (int i = 0; i < Hex.INTERNED_COUNT; i++) {
+            Hex hex = Hex.ofIndex(i);
+            assertSame(hex, Hex.of(hex.q, hex.r));
+            assertEquals(i, hex.index());
+            assertEquals(i < BitBoard.CELL_COUNT ? i : BitBoard.OFF_BOARD, BitBoard.indexOf(hex));
+        }
+        assertSame(Hex.of(4, 0), Hex.of(3, 0).neighbor(0));
+        assertSame(Hex.of(5, 0), Hex.of(4, 0).neighbor(0));
+        assertEquals(5, Hex.of(5, 0).distance(Hex.of(0, 0)));
+        
+        // Further out positions are still values, just not shared
+        Hex far = Hex.of(6, 0);
+        assertEquals(-1, far.index());
+        assertEquals(far, Hex.of(5, 0).neighbor(0));
+        assertEquals(far.hashCode(), Hex.of(6, 0).hashCode());
+        assertEquals(BitBoard.OFF_BOARD, BitBoard.indexOf(far));
+    }
+    
+    @Test
+    public void rays_followNeighboursToTheEdge() {
+        for (int i = 0; i < BitBoard.CELL_COUNT; i++) {
+            for (int dir = 0; dir < 6; dir++) {
+                int cell = i;
+                int steps = 0;
+                while ((cell = BitBoard.neighbor(cell, dir)) != BitBoard.OFF_BOARD) {
+                    steps++;
+                    assertEquals(cell, BitBoard.ray(i, dir, steps));
+                }
+                assertEquals(steps, BitBoard.rayLength(i, dir));
+                if (steps < BitBoard.MAX_RAY) {
+                    assertEquals(BitBoard.OFF_BOARD, BitBoard.ray(i, dir, steps + 1));
+                }
+            }
+        }
+        // Corner to corner along an edge crosses the whole board
+        assertEquals(BitBoard.MAX_RAY, BitBoard.rayLength(BitBoard.indexOf(-4, 0), 0));
+    }
+    
+    @Test
+    public void validator_rejectsRepeatedAndBrokenSelections() {
+        AbaloneGame game = new AbaloneGame();
+        MoveValidator validator = new MoveValidator(game.board(), Player.BLACK);
+        Hex marble = Hex.of(-4, 0);
+        assertTrue(validator.getValidMoves(Arrays.asList(marble, marble)).isEmpty());
+        assertTrue(validator.getValidMoves(Arrays.asList(Hex.of(-4, 0), Hex.of(-2, -2))).isEmpty());
+        assertFalse(validator.getValidMoves(Arrays.asList(Hex.of(0, -2), Hex.of(-2, 0), Hex.of(-1, -1))).isEmpty());
+    }
+    
+    @Test
+    public void initialPosition_hasFourteenMarblesEach() {
+        AbaloneGame game = new AbaloneGame();
+        int black = 0, white = 0;
+        for (Hex pos : game.getAllPositions()) {
+            if (game.getPlayerAt(pos) == Player.BLACK) black++;
+            if (game.getPlayerAt(pos) == Player.WHITE) white++;
+        }
+        assertEquals(61, game.getAllPositions().size());
+        assertEquals(14, black);
+        assertEquals(14, white);
+        assertEquals(Player.EMPTY, game.getPlayerAt(Hex.of(9, 9)));
+    }
+    
+    @Test
+    public void copy_isIndependent() {
+        BitBoard board = new BitBoard();
+        board.set(Hex.of(0, 0), Player.BLACK);
+        board.addScore(Player.WHITE, 2);
+        
+        BitBoard copy = new BitBoard(board);
+        copy.set(Hex.of(0, 0), Player.WHITE);
+        copy.addScore(Player.WHITE, 1);
+        
+        assertEquals(Player.BLACK, board.get(Hex.of(0, 0)));
+        assertEquals(2, board.getScore(Player.WHITE));
+        assertEquals(Player.WHITE, copy.get(Hex.of(0, 0)));
+        assertEquals(3, copy.getScore(Player.WHITE));
+        assertNotEquals(board, copy);
+    }
+    
+    @Test
+    public void setOffBoard_isRejected() {
+        BitBoard board = new BitBoard();
+        // A ring cell just beyond the edge and a cell further out
+        for (Hex position : new Hex[] {Hex.of(5, 0), Hex.of(-3, -3)}) {
+            try {
+                board.set(position, Player.BLACK);
+                fail("Expected off-board position to be rejected: " + position);
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+        assertEquals(new BitBoard(), board);
+        assertEquals(0, board.occupied());
+    }
+    
+    @Test
+    public void pushOffBoard_updatesScore() {
+        BitBoard board = new BitBoard();
+        board.set(Hex.of(2, 0), Player.BLACK);
+        board.set(Hex.of(3, 0), Player.BLACK);
+        board.set(Hex.of(4, 0), Player.WHITE);
+        
+        MoveValidator validator = new MoveValidator(board, Player.BLACK);
+        MoveValidator.ValidatedMove push = null;
+        for (MoveValidator.ValidatedMove move : validator.getValidMoves(
+                Arrays.asList(Hex.of(2, 0), Hex.of(3, 0)))) {
+            if (move.isPush) {
+                push = move;
+            }
+        }
+        assertNotNull(push);
+        
+        new MoveExecutor(board).executeMove(push, Player.BLACK);
+        assertEquals(1, board.getScore(Player.BLACK));
+        assertEquals(0, board.count(Player.WHITE));
+        assertEquals(Player.EMPTY, board.get(Hex.of(2, 0)));
+        assertEquals(Player.BLACK, board.get(Hex.of(3, 0)));
+        assertEquals(Player.BLACK, board.get(Hex.of(4, 0)));
+    }
+    
+    @Test
+    public void cellWeightSums_matchFromScratchAlongPlayouts() {
+        Random random = new Random(11);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int game = 0; game < 20; game++) {
+            AbaloneGame position = new AbaloneGame();
+            assertCellWeightSums(position.board());
+            for (int ply = 0; ply < 80 && position.checkWinner() == null; ply++) {
+                int count = MoveGenerator.generate(position.board(), position.getCurrentPlayer(), moves);
+                int move = moves[random.nextInt(count)];
+                BitBoard before = new BitBoard(position.board());
+                position.make(move);
+                assertCellWeightSums(position.board());
+                position.unmake(move);
+                assertEquals(before.centerCount(Player.BLACK), position.board().centerCount(Player.BLACK));
+                assertEquals(before.edgeExposure(Player.WHITE), position.board().edgeExposure(Player.WHITE));
+                position.make(move);
+            }
+            assertCellWeightSums(new BitBoard(position.board()));
+        }
+    }
+    
+    @Test
+    public void neighborMask_matchesNeighbor() {
+        for (int i = 0; i < BitBoard.CELL_COUNT; i++) {
+            long expected = 0;
+            for (int dir = 0; dir < 6; dir++) {
+                int next = BitBoard.neighbor(i, dir);
+                if (next >= 0) {
+                    expected |= 1L << next;
+                }
+            }
+            assertEquals(expected, BitBoard.neighborMask(i));
+        }
+        assertEquals(6, Long.bitCount(BitBoard.neighborMask(BitBoard.indexOf(0, 0))));
+        assertEquals(3, Long.bitCount(BitBoard.neighborMask(BitBoard.indexOf(4, 0))));
+    }
+    
+    private static void assertCellWeightSums(BitBoard board) {
+        for (Player player : new Player[] {Player.BLACK, Player.WHITE}) {
+            int center = 0, edge = 0;
+            for (int i = 0; i < BitBoard.CELL_COUNT; i++) {
+                if (board.get(i) == player) {
+                    center += CellWeights.center(i);
+                    edge += CellWeights.edge(i);
+                }
+            }
+            assertEquals(center, board.centerCount(player));
+            assertEquals(edge, board.edgeExposure(player));
+        }
+    }
+    
+    @Test
+    public void copy_readsBackSameCellsAsHashMapBoard() {
+        for (String name : new String[] {"start", "midgame", "endgame"}) {
+            AbaloneGame game = Perft.position(name);
+            Map<Hex, Player> legacyBoard = new HashMap<>();
+            for (Hex pos : BitBoard.cells()) {
+                legacyBoard.put(Hex.of(pos.q, pos.r), game.getPlayerAt(pos));
+            }
+            BitBoard copy = new BitBoard(game.board());
+            
+            int marbles = 0;
+            for (int i = 0; i < BitBoard.CELL_COUNT; i++) {
+                assertEquals(name, legacyBoard.get(BitBoard.hexAt(i)), copy.get(i));
+                if (copy.get(i) != Player.EMPTY) {
+                    marbles++;
+                }
+            }
+            assertEquals(name, copy.count(Player.BLACK) + copy.count(Player.WHITE), marbles);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the parallel (Lazy SMP) search. Its speed and strength
+ * depend on the cores of the machine: the JMH {@code SearchBenchmark} times
+ * it to a fixed depth, and {@link SelfPlayMatch} plays {@code hard} against
+ * {@code hard+threads=1}.
+ */
+public class LazySmpTest {
+    private static final int PARALLEL_THREADS = 4;
+    /**
+     * Shallow enough that no reduction below the root depends on move order,
+     * so what the helpers leave in the shared table cannot change the score;
+     * deeper, parallel and single-threaded scores may differ
+     */
+    private static final int FIXED_DEPTH = 3;
+    
+    @Test
+    public void parallelSearch_returnsLegalMove() {
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, PARALLEL_THREADS);
+        AbaloneGame game = new AbaloneGame();
+        AbaloneAI.Move move = ai.getBestMove(game, Player.BLACK);
+        ai.shutdown();
+        
+        assertNotNull(move);
+        assertTrue(ai.getLastSearchDepth() >= 1);
+        assertTrue(ai.getLastSearchNodes() > 0);
+        assertTrue(replay(game, move));
+    }
+    
+    @Test
+    public void fixedDepthParallelSearch_matchesSingleThreadScore() {
+        for (String name : new String[] {"start", "belgian", "midgame", "endgame"}) {
+            AbaloneGame game = Perft.position(name);
+            Player side = game.getCurrentPlayer();
+            
+            AbaloneAI single = new AbaloneAI(AIDifficulty.HARD, 1);
+            AbaloneAI.SearchContext singleCtx = new AbaloneAI.SearchContext(game);
+            single.searchFixedDepth(singleCtx, side, FIXED_DEPTH);
+            single.shutdown();
+            
+            AbaloneAI parallel = new AbaloneAI(AIDifficulty.HARD, PARALLEL_THREADS);
+            AbaloneAI.SearchContext parallelCtx = new AbaloneAI.SearchContext(game);
+            int move = parallel.searchFixedDepth(parallelCtx, side, FIXED_DEPTH, PARALLEL_THREADS);
+            parallel.shutdown();
+            
+            assertTrue(name, TestMoves.isLegal(game, new AbaloneAI.Move(move)));
+            assertEquals(name, FIXED_DEPTH, parallelCtx.completedDepth);
+            assertEquals(name, singleCtx.bestScore, parallelCtx.bestScore);
+        }
+    }
+    
+    private static boolean replay(AbaloneGame game, AbaloneAI.Move move) {
+        game.clearSelection();
+        for (Hex marble : move.selectedMarbles) {
+            if (!game.selectMarble(marble)) {
+                return false;
+            }
+        }
+        return game.makeMove(move.target);
+    }
+}
@@ -0,0 +1,84 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the table-driven mobility and threat counts against the move generator.
+ */
+public class MobilityTest {
+    private static final int PLAYOUTS = 60;
+    private static final int PLIES = 100;
+    
+    @Test
+    public void startPosition_matchesGenerator() {
+        BitBoard board = new AbaloneGame().board();
+        assertEquals(44, Mobility.count(board, Player.BLACK));
+        assertEquals(44, Mobility.count(board, Player.WHITE));
+        assertEquals(0, Mobility.ejectionThreats(board, Player.BLACK));
+    }
+    
+    @Test
+    public void countsMatchGeneratorAlongRandomGames() {
+        Random random = new Random(3);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        
+        for (int game = 0; game < PLAYOUTS; game++) {
+            AbaloneGame position = new AbaloneGame();
+            for (int ply = 0; ply < PLIES && position.checkWinner() == null; ply++) {
+                for (Player player : new Player[] {Player.BLACK, Player.WHITE}) {
+                    int count = MoveGenerator.generate(position.board(), player, moves);
+                    int ejections = 0;
+                    for (int i = 0; i < count; i++) {
+                        if (PackedMove.ejects(moves[i])) {
+                            ejections++;
+                        }
+                    }
+                    assertEquals(count, Mobility.count(position.board(), player));
+                    assertEquals(ejections, Mobility.ejectionThreats(position.board(), player));
+                }
+                
+                // Prefer pushes so playouts reach sumito and ejection positions
+                int count = MoveGenerator.generate(position.board(), position.getCurrentPlayer(), moves);
+                int chosen = moves[random.nextInt(count)];
+                for (int i = 0; i < count; i++) {
+                    if (PackedMove.isPush(moves[i]) && random.nextInt(3) == 0) {
+                        chosen = moves[i];
+                        break;
+                    }
+                }
+                position.make(chosen);
+            }
+        }
+    }
+    
+    @Test
+    public void ejectionThreat_countsEachLongerLine() {
+        BitBoard board = new BitBoard();
+        board.set(Hex.of(1, 0), Player.BLACK);
+        board.set(Hex.of(2, 0), Player.BLACK);
+        board.set(Hex.of(3, 0), Player.BLACK);
+        board.set(Hex.of(4, 0), Player.WHITE);
+        
+        // The pair and the triple behind the front marble can both eject
+        assertEquals(2, Mobility.ejectionThreats(board, Player.BLACK));
+        assertEquals(0, Mobility.ejectionThreats(board, Player.WHITE));
+    }
+    
+    @Test
+    public void lineCodes_followCopiesAndClear() {
+        AbaloneGame game = Perft.position("endgame");
+        BitBoard copy = new BitBoard(game.board());
+        for (int line = 0; line < BitBoard.LINE_COUNT; line++) {
+            assertEquals(game.board().lineCode(line), copy.lineCode(line));
+        }
+        copy.clear();
+        for (int line = 0; line < BitBoard.LINE_COUNT; line++) {
+            assertEquals(0, copy.lineCode(line));
+        }
+        assertEquals(0, Mobility.count(copy, Player.BLACK));
+    }
+}
@@ -0,0 +1,77 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the Monte Carlo tree search backend. Its strength
+ * against minimax at the same time budget is measured with
+ * {@link SelfPlayMatch}, e.g. {@code medium+montecarlo} against {@code medium}.
+ */
+public class MonteCarloSearchTest {
+    
+    @Test
+    public void search_returnsLegalMoveWithItsLine() {
+        AbaloneGame game = Perft.position("midgame");
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+        ai.setMonteCarlo(true);
+        AbaloneAI.Move move = ai.getBestMove(game, Player.WHITE);
+        ai.shutdown();
+        
+        assertTrue(TestMoves.isLegal(game, move));
+        assertTrue(ai.getLastSearchNodes() > 100);
+        List<AbaloneAI.Move> pv = ai.getLastPrincipalVariation();
+        assertFalse(pv.isEmpty());
+        assertEquals(move.packed, pv.get(0).packed);
+        assertEquals(pv.size(), ai.getLastSearchDepth());
+    }
+    
+    @Test
+    public void search_takesEjection() {
+        AbaloneGame game = Perft.position("C1 C2 D1 D2 E4 I9", "G7 H8", Player.WHITE, 0, 0);
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+        ai.setMonteCarlo(true);
+        AbaloneAI.Move move = ai.getBestMove(game, Player.WHITE);
+        ai.shutdown();
+        
+        assertTrue(PackedMove.ejects(move.packed));
+    }
+    
+    @Test
+    public void fullPool_keepsPlayingOutFromLeaves() {
+        AbaloneGame game = Perft.position("endgame");
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.MEDIUM, 1);
+        MonteCarloSearch search = new MonteCarloSearch(ai, null, 1000);
+        AbaloneAI.SearchContext ctx = new AbaloneAI.SearchContext(game);
+        int count = MoveGenerator.generate(game.board(), Player.BLACK, ctx.moves[0]);
+        int move = search.search(ctx, count, Player.BLACK, 300, 1);
+        ai.shutdown();
+        
+        assertTrue(search.treeSize() <= 1000);
+        assertTrue(ctx.nodes > 1000);
+        assertTrue(TestMoves.isLegal(game, new AbaloneAI.Move(move)));
+        assertEquals(Perft.position("endgame").positionHash(), ctx.position.positionHash());
+    }
+    
+    @Test
+    public void treeParallelSearch_sharesOneTree() {
+        AbaloneGame game = Perft.position("midgame");
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.MEDIUM, 1);
+        ExecutorService helpers = Executors.newFixedThreadPool(3);
+        MonteCarloSearch search = new MonteCarloSearch(ai, helpers, 1 << 16);
+        AbaloneAI.SearchContext ctx = new AbaloneAI.SearchContext(game);
+        int count = MoveGenerator.generate(game.board(), Player.WHITE, ctx.moves[0]);
+        int move = search.search(ctx, count, Player.WHITE, 500, 4);
+        helpers.shutdownNow();
+        ai.shutdown();
+        
+        assertTrue(TestMoves.isLegal(game, new AbaloneAI.Move(move)));
+        assertTrue(ctx.completedDepth > 0);
+        assertTrue(search.treeSize() > count);
+    }
+}
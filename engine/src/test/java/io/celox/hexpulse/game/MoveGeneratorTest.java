@@ -0,0 +1,151 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the packed-int move generator against MoveValidator on random playouts.
+ */
+public class MoveGeneratorTest {
+    private static final int PLAYOUTS = 40;
+    private static final int PLIES = 60;
+    
+    @Test
+    public void startPosition_hasFortyFourMoves() {
+        AbaloneGame game = new AbaloneGame();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        assertEquals(44, MoveGenerator.generate(game.board(), Player.BLACK, moves));
+    }
+    
+    @Test
+    public void generator_matchesValidatorAlongRandomGames() {
+        Random random = new Random(7);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        
+        for (int game = 0; game < PLAYOUTS; game++) {
+            AbaloneGame position = new AbaloneGame();
+            for (int ply = 0; ply < PLIES && position.checkWinner() == null; ply++) {
+                Player player = position.getCurrentPlayer();
+                int count = MoveGenerator.generate(position.board(), player, moves);
+                
+                Set<String> generated = new HashSet<>();
+                for (int i = 0; i < count; i++) {
+                    assertTrue("duplicate move", generated.add(key(PackedMove.marbles(moves[i]),
+                        PackedMove.direction(moves[i]))));
+                    assertReplaysThroughUi(position, moves[i]);
+                }
+                Set<String> expected = new HashSet<>();
+                Set<Integer> packed = new HashSet<>();
+                for (MoveValidator.ValidatedMove move : AbaloneGameTest.legalMoves(position)) {
+                    expected.add(key(move.marbles, move.direction));
+                    packed.add(PackedMove.of(move));
+                }
+                assertEquals(expected, generated);
+                // Validated moves pack to exactly the generator's ints
+                for (int i = 0; i < count; i++) {
+                    assertTrue(packed.remove(moves[i]));
+                }
+                assertTrue(packed.isEmpty());
+                
+                // Prefer pushes so playouts reach sumito and ejection positions
+                int chosen = moves[random.nextInt(count)];
+                for (int i = 0; i < count; i++) {
+                    if (PackedMove.isPush(moves[i]) && random.nextBoolean()) {
+                        chosen = moves[i];
+                        break;
+                    }
+                }
+                position.make(chosen);
+            }
+        }
+    }
+    
+    @Test
+    public void packedMakeUnmake_restoresPosition() {
+        Random random = new Random(11);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        AbaloneGame position = new AbaloneGame();
+        
+        for (int ply = 0; ply < 200 && position.checkWinner() == null; ply++) {
+            int count = MoveGenerator.generate(position.board(), position.getCurrentPlayer(), moves);
+            BitBoard before = new BitBoard(position.board());
+            Player side = position.getCurrentPlayer();
+            for (int i = 0; i < count; i++) {
+                position.make(moves[i]);
+                position.unmake(moves[i]);
+                assertEquals(before, position.board());
+                assertEquals(side, position.getCurrentPlayer());
+            }
+            position.make(moves[random.nextInt(count)]);
+        }
+    }
+    
+    @Test
+    public void generatePushes_matchesPushesOfFullGeneration() {
+        Random random = new Random(5);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int[] pushes = new int[MoveGenerator.MAX_MOVES];
+        
+        for (int game = 0; game < PLAYOUTS; game++) {
+            AbaloneGame position = new AbaloneGame();
+            for (int ply = 0; ply < PLIES && position.checkWinner() == null; ply++) {
+                int count = MoveGenerator.generate(position.board(), position.getCurrentPlayer(), moves);
+                Set<Integer> expected = new HashSet<>();
+                for (int i = 0; i < count; i++) {
+                    if (PackedMove.isPush(moves[i])) {
+                        expected.add(moves[i]);
+                    }
+                }
+                
+                int pushCount = MoveGenerator.generatePushes(position.board(), position.getCurrentPlayer(), pushes);
+                Set<Integer> generated = new HashSet<>();
+                boolean quietSeen = false;
+                for (int i = 0; i < pushCount; i++) {
+                    generated.add(pushes[i]);
+                    assertFalse("ejections come first", quietSeen && PackedMove.ejects(pushes[i]));
+                    quietSeen |= !PackedMove.ejects(pushes[i]);
+                }
+                assertEquals(expected.size(), pushCount);
+                assertEquals(expected, generated);
+                
+                int chosen = pushCount > 0 && random.nextBoolean()
+                    ? pushes[random.nextInt(pushCount)] : moves[random.nextInt(count)];
+                position.make(chosen);
+            }
+        }
+    }
+    
+    /**
+     * The UI replays AI moves by selecting the marbles and tapping the target;
+     * that must land on the same cells as the packed move
+     */
+    private static void assertReplaysThroughUi(AbaloneGame position, int move) {
+        AbaloneGame viaUi = new AbaloneGame(position);
+        viaUi.clearSelection();
+        for (Hex marble : PackedMove.marbles(move)) {
+            assertTrue(viaUi.selectMarble(marble));
+        }
+        assertTrue(viaUi.makeMove(PackedMove.target(move)));
+        
+        AbaloneGame viaMake = new AbaloneGame(position);
+        viaMake.make(move);
+        assertEquals(viaMake.board(), viaUi.board());
+    }
+    
+    private static String key(List<Hex> marbles, int direction) {
+        List<Integer> cells = new ArrayList<>();
+        for (Hex marble : marbles) {
+            cells.add(BitBoard.indexOf(marble));
+        }
+        Collections.sort(cells);
+        return cells + ":" + direction;
+    }
+}
@@ -0,0 +1,50 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the killer, counter-move and history tables filled by the search.
+ */
+public class MoveOrderingTest {
+    @Test
+    public void search_recordsOnlyQuietCutoffMoves() {
+        AbaloneGame game = Perft.position("midgame");
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+        AbaloneAI.SearchContext ctx = new AbaloneAI.SearchContext(game);
+        ai.searchFixedDepth(ctx, game.getCurrentPlayer(), 5);
+        ai.shutdown();
+        
+        int killers = 0;
+        for (int[] ply : ctx.killers) {
+            for (int move : ply) {
+                if (move != PackedMove.NONE) {
+                    killers++;
+                    assertFalse(PackedMove.isPush(move));
+                }
+            }
+        }
+        assertTrue(killers > 0);
+        
+        long history = 0;
+        for (int score : ctx.history) {
+            assertTrue(score >= 0);
+            history += score;
+        }
+        assertTrue(history > 0);
+        
+        for (int move : ctx.counterMoves) {
+            assertFalse(PackedMove.isPush(move));
+        }
+    }
+    
+    @Test
+    public void shape_dropsOnlyThePushOutcome() {
+        int push = PackedMove.encode(10, 3, 1, 4, 2, true);
+        int quiet = PackedMove.encode(10, 3, 1, 4, 0, false);
+        assertEquals(PackedMove.shape(quiet), PackedMove.shape(push));
+        assertEquals(quiet, PackedMove.shape(quiet));
+        assertTrue(PackedMove.shape(push) < PackedMove.SHAPES);
+    }
+}
@@ -0,0 +1,163 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the binary opening book and the AI's book moves.
+ */
+public class OpeningBookTest {
+    
+    @Test
+    public void mappedBook_findsWeightedMovesInPlace() throws IOException {
+        int[] moves = startMoves();
+        long start = new AbaloneGame().positionHash();
+        OpeningBook.Builder builder = new OpeningBook.Builder()
+            .add(start, moves[3], 3)
+            .add(start, moves[7], 1)
+            .add(start + 1, moves[0], 1)
+            .add(start - 1, moves[1], 1);
+        
+        File file = File.createTempFile("opening", ".book");
+        try {
+            try (OutputStream out = new FileOutputStream(file)) {
+                builder.write(out);
+            }
+            OpeningBook book = OpeningBook.open(file);
+            
+            assertEquals(4, book.size());
+            assertEquals(moves[3], book.bestMove(start));
+            assertEquals(moves[0], book.bestMove(start + 1));
+            assertEquals(PackedMove.NONE, book.bestMove(start + 2));
+            assertEquals(PackedMove.NONE, book.probe(start + 2, new Random(1)));
+            
+            Random random = new Random(2);
+            int first = 0;
+            for (int i = 0; i < 1000; i++) {
+                int move = book.probe(start, random);
+                assertTrue(move == moves[3] || move == moves[7]);
+                first += move == moves[3] ? 1 : 0;
+            }
+            assertTrue("weighted pick chose the heavier move " + first + " times", first > 650 && first < 850);
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+    
+    @Test
+    public void wrap_rejectsOtherData() {
+        byte[] bytes = new byte[32];
+        try {
+            OpeningBook.wrap(ByteBuffer.wrap(bytes));
+            fail("Expected data without the magic number to be rejected");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        
+        ByteBuffer book = ByteBuffer.allocate(32);
+        book.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putInt(2).putInt(0);
+        book.rewind();
+        try {
+            OpeningBook.wrap(book);
+            fail("Expected a truncated book to be rejected");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+    
+    @Test
+    public void bookMove_isPlayedWithoutSearching() {
+        int[] moves = startMoves();
+        AbaloneGame game = new AbaloneGame();
+        game.make(moves[5]);
+        int reply = firstMove(game);
+        OpeningBook book = new OpeningBook.Builder()
+            .add(new AbaloneGame().board(), Player.BLACK, moves[5], 1)
+            .add(game.board(), Player.WHITE, reply, 1)
+            .build();
+        
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+        ai.setOpeningBook(book);
+        AbaloneAI.Move move = ai.getBestMove(new AbaloneGame(), Player.BLACK);
+        ai.shutdown();
+        
+        assertEquals(moves[5], move.packed);
+        assertEquals(0, ai.getLastSearchNodes());
+        assertEquals(2, ai.getLastPrincipalVariation().size());
+        assertEquals(reply, ai.getLastPrincipalVariation().get(1).packed);
+    }
+    
+    @Test
+    public void mirroredPositions_shareOneEntry() {
+        AbaloneGame game = Perft.position("midgame");
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generate(game.board(), Player.WHITE, moves);
+        int move = moves[count / 2];
+        OpeningBook book = new OpeningBook.Builder()
+            .add(game.board(), Player.WHITE, move, 1)
+            .build();
+        
+        assertEquals(1, book.size());
+        assertEquals(move, book.bestMove(game.board(), Player.WHITE));
+        assertEquals(PackedMove.NONE, book.bestMove(game.board(), Player.BLACK));
+        for (int s = 1; s < Symmetry.COUNT; s++) {
+            BitBoard turned = new BitBoard();
+            turned.addScore(Player.BLACK, game.board().getScore(Player.BLACK));
+            turned.addScore(Player.WHITE, game.board().getScore(Player.WHITE));
+            for (int i = 0; i < BitBoard.CELL_COUNT; i++) {
+                if (game.board().get(i) != Player.EMPTY) {
+                    turned.set(Symmetry.cell(s, i), game.board().get(i));
+                }
+            }
+            assertEquals(Symmetry.transformMove(move, s), book.probe(turned, Player.WHITE, new Random(s)));
+        }
+    }
+    
+    @Test
+    public void illegalBookMove_fallsBackToSearch() {
+        AbaloneGame white = new AbaloneGame();
+        white.make(startMoves()[0]);
+        OpeningBook book = new OpeningBook.Builder()
+            .add(new AbaloneGame().board(), Player.BLACK, firstMove(white), 1)
+            .build();
+        
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+        ai.setOpeningBook(book);
+        AbaloneAI.Move move = ai.getBestMove(new AbaloneGame(), Player.BLACK);
+        ai.shutdown();
+        
+        assertNotNull(move);
+        assertNotEquals(firstMove(white), move.packed);
+    }
+    
+    @Test
+    public void builder_recordsLegalMovesFromSelfPlay() {
+        OpeningBook book = OpeningBookBuilder.build(4, 3, 2, 1L).build();
+        
+        AbaloneGame game = new AbaloneGame();
+        int move = book.bestMove(game.board(), Player.BLACK);
+        assertTrue(Arrays.stream(startMoves()).anyMatch(legal -> legal == move));
+        assertTrue(book.size() > 3);
+    }
+    
+    private static int[] startMoves() {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generate(new AbaloneGame().board(), Player.BLACK, moves);
+        return Arrays.copyOf(moves, count);
+    }
+    
+    private static int firstMove(AbaloneGame game) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        MoveGenerator.generate(game.board(), game.getCurrentPlayer(), moves);
+        return moves[0];
+    }
+}
@@ -0,0 +1,101 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Golden perft node counts. Any change to move generation or make/unmake
+ * that alters these numbers changes the rules.
+ */
+public class PerftTest {
+    private static final String[] NAMES = {"start", "belgian", "german", "midgame", "endgame"};
+    private static final long[][] GOLDEN = {
+        {44, 1936, 98912},
+        {52, 2692, 149322},
+        {80, 6244, 493480},
+        {74, 4096, 294719},
+        {61, 3271, 197743},
+    };
+    
+    @Test
+    public void generator_matchesGoldenCounts() {
+        for (int p = 0; p < NAMES.length; p++) {
+            for (int depth = 1; depth <= GOLDEN[p].length; depth++) {
+                assertEquals(NAMES[p] + " perft(" + depth + ")", GOLDEN[p][depth - 1],
+                    Perft.generator(Perft.position(NAMES[p]), depth));
+            }
+        }
+    }
+    
+    @Test
+    public void reference_matchesGoldenCounts() {
+        for (int p = 0; p < NAMES.length; p++) {
+            for (int depth = 1; depth <= 2; depth++) {
+                assertEquals(NAMES[p] + " perft(" + depth + ")", GOLDEN[p][depth - 1],
+                    Perft.reference(Perft.position(NAMES[p]), depth));
+            }
+        }
+        assertEquals(GOLDEN[0][2], Perft.reference(Perft.position("start"), 3));
+    }
+    
+    @Test
+    public void perft_leavesPositionUnchanged() {
+        AbaloneGame game = Perft.position("endgame");
+        BitBoard before = new BitBoard(game.board());
+        long hash = game.positionHash();
+        
+        Perft.reference(game, 2);
+        Perft.generator(game, 3);
+        
+        assertEquals(before, game.board());
+        assertEquals(hash, game.positionHash());
+        assertEquals(Player.BLACK, game.getCurrentPlayer());
+    }
+    
+    @Test
+    public void divide_sumsToPerftAndAgreesBetweenGenerators() {
+        AbaloneGame game = Perft.position("midgame");
+        Map<String, Long> reference = Perft.divide(game, 2, false);
+        Map<String, Long> generator = Perft.divide(game, 2, true);
+        
+        assertEquals(reference, generator);
+        assertEquals(GOLDEN[3][0], generator.size());
+        long nodes = 0;
+        for (long count : generator.values()) {
+            nodes += count;
+        }
+        assertEquals(GOLDEN[3][1], nodes);
+    }
+    
+    @Test
+    public void position_hashMatchesFromScratch() {
+        for (String name : Perft.POSITIONS) {
+            AbaloneGame game = Perft.position(name);
+            assertEquals(name, Zobrist.hash(game.board(), game.getCurrentPlayer()), game.positionHash());
+        }
+    }
+    
+    @Test
+    public void cellNotation_roundTrips() {
+        assertEquals(BitBoard.indexOf(0, 0), Perft.cell("E5"));
+        assertEquals(BitBoard.indexOf(-4, 4), Perft.cell("A1"));
+        for (int i = 0; i < BitBoard.CELL_COUNT; i++) {
+            assertEquals(i, Perft.cell(Perft.cellName(i)));
+        }
+    }
+    
+    @Test
+    public void cell_rejectsOffBoardNames() {
+        for (String name : new String[] {"A9", "I1", "J5", "E", "E10"}) {
+            try {
+                Perft.cell(name);
+                fail(name);
+            } catch (IllegalArgumentException expected) {
+                // off the board
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for searching on the opponent's time.
+ */
+public class PonderTest {
+    /** Bound for an answer that should come from pondering instead of a fresh search */
+    private static final long HIT_MILLIS = 200;
+    
+    @Test
+    public void ponderHit_answersAtOnce() throws InterruptedException {
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+        AbaloneGame game = afterAiMove(ai, new AbaloneGame());
+        int reply = ai.getLastPrincipalVariation().get(1).packed;
+        ai.startPondering(game, Player.BLACK);
+        assertTrue(ai.isPondering());
+        Thread.sleep(AIDifficulty.HARD.getTimeLimit());
+        
+        game.make(reply);
+        long start = System.nanoTime();
+        AbaloneAI.Move move = await(ai, game, Player.BLACK);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        ai.shutdown();
+        
+        assertTrue("ponder hit took " + millis + " ms", millis < HIT_MILLIS);
+        assertTrue(TestMoves.isLegal(game, move));
+    }
+    
+    @Test
+    public void ponderHit_takesOverRunningSearch() throws InterruptedException {
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+        AbaloneGame game = afterAiMove(ai, Perft.position("midgame"));
+        int reply = ai.getLastPrincipalVariation().get(1).packed;
+        long ponderStart = System.nanoTime();
+        ai.startPondering(game, Player.WHITE);
+        Thread.sleep(300);
+        assertTrue(ai.isPondering());
+        
+        game.make(reply);
+        long start = System.nanoTime();
+        AbaloneAI.Move move = await(ai, game, Player.WHITE);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long pondered = TimeUnit.NANOSECONDS.toMillis(start - ponderStart);
+        ai.shutdown();
+        
+        // Only the part of the time limit not already spent pondering is left
+        assertTrue("ponder hit took " + millis + " ms", millis < AIDifficulty.HARD.getTimeLimit() - pondered + 150);
+        assertTrue(TestMoves.isLegal(game, move));
+    }
+    
+    @Test
+    public void ponderMiss_searchesTheActualPosition() throws InterruptedException {
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+        AbaloneGame game = afterAiMove(ai, new AbaloneGame());
+        int expected = ai.getLastPrincipalVariation().get(1).packed;
+        ai.startPondering(game, Player.BLACK);
+        
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generate(game.board(), Player.WHITE, moves);
+        game.make(moves[0] != expected ? moves[0] : moves[1]);
+        AbaloneAI.Move move = await(ai, game, Player.BLACK);
+        ai.shutdown();
+        
+        assertFalse(ai.isPondering());
+        assertTrue(count > 1);
+        assertTrue(TestMoves.isLegal(game, move));
+    }
+    
+    @Test
+    public void ponderBudget_capsPonderingAndKeepsItsResult() throws InterruptedException {
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+        AbaloneGame game = afterAiMove(ai, new AbaloneGame());
+        int reply = ai.getLastPrincipalVariation().get(1).packed;
+        ai.setPonderBudget(300, 1);
+        ai.startPondering(game, Player.BLACK);
+        Thread.sleep(600);
+        assertFalse(ai.isPondering());
+        
+        game.make(reply);
+        long start = System.nanoTime();
+        AbaloneAI.Move move = await(ai, game, Player.BLACK);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        ai.shutdown();
+        
+        assertTrue("finished ponder took " + millis + " ms", millis < HIT_MILLIS);
+        assertTrue(TestMoves.isLegal(game, move));
+    }
+    
+    @Test
+    public void zeroBudget_disablesPondering() {
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+        AbaloneGame game = afterAiMove(ai, new AbaloneGame());
+        ai.setPonderBudget(0, 1);
+        ai.startPondering(game, Player.BLACK);
+        boolean pondering = ai.isPondering();
+        ai.shutdown();
+        
+        assertFalse(pondering);
+    }
+    
+    /**
+     * A position after the AI has searched it and played its move
+     */
+    private static AbaloneGame afterAiMove(AbaloneAI ai, AbaloneGame game) {
+        AbaloneAI.Move move = ai.getBestMove(game, game.getCurrentPlayer());
+        game.make(move.packed);
+        assertTrue(ai.getLastPrincipalVariation().size() >= 2);
+        return game;
+    }
+    
+    private static AbaloneAI.Move await(AbaloneAI ai, AbaloneGame game, Player player)
+            throws InterruptedException {
+        AtomicReference<AbaloneAI.Move> result = new AtomicReference<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        ai.getBestMoveAsync(game, player, new AbaloneAI.MoveCallback() {
+            @Override
+            public void onMoveCalculated(AbaloneAI.Move move) {
+                result.set(move);
+                delivered.countDown();
+            }
+            
+            @Override
+            public void onMoveError(String error) {
+                delivered.countDown();
+            }
+        });
+        assertTrue(delivered.await(10, TimeUnit.SECONDS));
+        return result.get();
+    }
+}
@@ -0,0 +1,110 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the binary and text position codes.
+ */
+public class PositionCodecTest {
+    
+    @Test
+    public void namedPositions_roundTrip() {
+        for (String name : Perft.POSITIONS) {
+            assertRoundTrip(Perft.position(name));
+        }
+    }
+    
+    @Test
+    public void randomGames_roundTripEveryPosition() {
+        Random random = new Random(20);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        
+        for (int game = 0; game < 10; game++) {
+            AbaloneGame position = new AbaloneGame();
+            for (int ply = 0; ply < 150 && position.checkWinner() == null; ply++) {
+                assertRoundTrip(position);
+                int count = MoveGenerator.generate(position.board(), position.getCurrentPlayer(), moves);
+                position.make(moves[random.nextInt(count)]);
+            }
+            assertRoundTrip(position);
+        }
+    }
+    
+    @Test
+    public void text_isShortAndUrlSafe() {
+        String text = PositionCodec.toText(Perft.position("midgame"));
+        
+        assertEquals(PositionCodec.TEXT_LENGTH, text.length());
+        assertTrue(text, text.matches("[A-Za-z0-9_-]+"));
+        assertEquals(PositionCodec.BYTES, PositionCodec.encode(new AbaloneGame()).length);
+    }
+    
+    @Test
+    public void perftPosition_acceptsCodes() {
+        AbaloneGame endgame = Perft.position("endgame");
+        AbaloneGame decoded = Perft.position(PositionCodec.toText(endgame));
+        
+        assertEquals(endgame.board(), decoded.board());
+        assertEquals(Perft.generator(endgame, 2), Perft.generator(decoded, 2));
+    }
+    
+    @Test
+    public void decode_rejectsMalformedCodes() {
+        byte[] valid = PositionCodec.encode(new AbaloneGame());
+        
+        assertRejected(new byte[PositionCodec.BYTES - 1]);
+        
+        byte[] reserved = valid.clone();
+        reserved[0] |= (byte) 0x80;
+        assertRejected(reserved);
+        
+        byte[] overlapping = valid.clone();
+        System.arraycopy(valid, 1, overlapping, 9, 8);
+        assertRejected(overlapping);
+        
+        byte[] offBoard = valid.clone();
+        offBoard[1] |= (byte) 0x80;
+        assertRejected(offBoard);
+        
+        String text = PositionCodec.toText(new AbaloneGame());
+        assertRejectedText(text.substring(1));
+        assertRejectedText("*" + text.substring(1));
+        assertRejectedText(text.substring(0, text.length() - 1) + "B");
+    }
+    
+    private static void assertRoundTrip(AbaloneGame game) {
+        byte[] bytes = PositionCodec.encode(game);
+        AbaloneGame decoded = PositionCodec.decode(bytes);
+        
+        assertEquals(game.board(), decoded.board());
+        assertEquals(game.getCurrentPlayer(), decoded.getCurrentPlayer());
+        assertEquals(game.positionHash(), decoded.positionHash());
+        assertArrayEquals(bytes, PositionCodec.encode(decoded));
+        
+        String text = PositionCodec.toText(game);
+        assertEquals(game.board(), PositionCodec.fromText(text).board());
+        assertEquals(text, PositionCodec.toText(PositionCodec.fromText(text)));
+    }
+    
+    private static void assertRejected(byte[] bytes) {
+        try {
+            PositionCodec.decode(bytes);
+            fail("Expected malformed position code to be rejected");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+    
+    private static void assertRejectedText(String text) {
+        try {
+            PositionCodec.fromText(text);
+            fail("Expected malformed position text to be rejected: " + text);
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
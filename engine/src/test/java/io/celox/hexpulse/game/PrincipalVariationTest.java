@@ -0,0 +1,85 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the principal variation kept by the PVS / aspiration-window search.
+ */
+public class PrincipalVariationTest {
+    /** Node budgets tried per position, spread over the interrupted iteration */
+    private static final int INTERRUPTIONS = 50;
+    
+    @Test
+    public void fixedDepthSearch_leavesPlayableVariation() {
+        for (String name : Perft.POSITIONS) {
+            AbaloneGame game = Perft.position(name);
+            AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+            AbaloneAI.SearchContext ctx = new AbaloneAI.SearchContext(game);
+            int best = ai.searchFixedDepth(ctx, game.getCurrentPlayer(), 4);
+            ai.shutdown();
+            
+            assertEquals(4, ctx.completedDepth);
+            assertTrue(name, ctx.previousPvLength >= 1);
+            assertEquals(name, best, ctx.previousPv[0]);
+            
+            // Every move of the line is legal in turn
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            for (int i = 0; i < ctx.previousPvLength; i++) {
+                int count = MoveGenerator.generate(game.board(), game.getCurrentPlayer(), moves);
+                boolean legal = false;
+                for (int j = 0; j < count; j++) {
+                    legal |= moves[j] == ctx.previousPv[i];
+                }
+                assertTrue(name + " ply " + i, legal);
+                game.make(ctx.previousPv[i]);
+            }
+        }
+    }
+    
+    @Test
+    public void timedSearch_reportsVariationStartingWithItsMove() {
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+        AbaloneGame game = Perft.position("midgame");
+        AbaloneAI.Move move = ai.getBestMove(game, game.getCurrentPlayer());
+        ai.shutdown();
+        
+        List<AbaloneAI.Move> pv = ai.getLastPrincipalVariation();
+        assertFalse(pv.isEmpty());
+        assertEquals(move.selectedMarbles, pv.get(0).selectedMarbles);
+        assertEquals(move.target, pv.get(0).target);
+    }
+    
+    /**
+     * In these positions no depth 4 move beats the depth 3 best move, so a
+     * depth 4 iteration cut off anywhere, even inside a root move, must keep it
+     */
+    @Test
+    public void interruptedIteration_keepsPreviousBestMove() {
+        for (String name : new String[] {"start", "belgian", "german"}) {
+            AbaloneGame game = Perft.position(name);
+            AbaloneAI.SearchContext previous = fixedDepth(game, 3, Long.MAX_VALUE);
+            AbaloneAI.SearchContext complete = fixedDepth(game, 4, Long.MAX_VALUE);
+            assertEquals(name, previous.bestMove, complete.bestMove);
+            
+            long step = Math.max(1, (complete.nodes - previous.nodes) / INTERRUPTIONS);
+            for (long budget = previous.nodes; budget < complete.nodes; budget += step) {
+                AbaloneAI.SearchContext interrupted = fixedDepth(game, 4, budget);
+                assertEquals(name + " after " + budget + " nodes", 3, interrupted.completedDepth);
+                assertEquals(name + " after " + budget + " nodes", previous.bestMove, interrupted.bestMove);
+            }
+        }
+    }
+    
+    private static AbaloneAI.SearchContext fixedDepth(AbaloneGame game, int depth, long maxNodes) {
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+        AbaloneAI.SearchContext ctx = new AbaloneAI.SearchContext(game);
+        ctx.maxNodes = maxNodes;
+        ai.searchFixedDepth(ctx, game.getCurrentPlayer(), depth);
+        ai.shutdown();
+        return ctx;
+    }
+}
@@ -0,0 +1,35 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the quiescence search sees sumito exchanges past the nominal depth.
+ */
+public class QuiescenceTest {
+    @Test
+    public void depthOneSearch_escapesEjectionThreat() {
+        // White's pair G7-H8 threatens to push the black marble on I9 off the board
+        AbaloneGame game = Perft.position("C1 C2 D1 D2 E4 I9", "G7 H8", Player.BLACK, 0, 0);
+        assertEquals(1, Mobility.ejectionThreats(game.board(), Player.WHITE));
+        
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.MEDIUM, 1);
+        int move = ai.searchFixedDepth(new AbaloneAI.SearchContext(game), Player.BLACK, 1);
+        ai.shutdown();
+        
+        game.make(move);
+        assertEquals(0, Mobility.ejectionThreats(game.board(), Player.WHITE));
+    }
+    
+    @Test
+    public void depthOneSearch_takesEjection() {
+        AbaloneGame game = Perft.position("C1 C2 D1 D2 E4 I9", "G7 H8", Player.WHITE, 0, 0);
+        
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.MEDIUM, 1);
+        int move = ai.searchFixedDepth(new AbaloneAI.SearchContext(game), Player.WHITE, 1);
+        ai.shutdown();
+        
+        assertTrue(PackedMove.ejects(move));
+    }
+}
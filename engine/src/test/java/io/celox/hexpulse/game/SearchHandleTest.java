@@ -0,0 +1,160 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for streaming, stopping and cancelling asynchronous searches.
+ */
+public class SearchHandleTest {
+    /** Generous bound for "within a few milliseconds" on a loaded test machine */
+    private static final long CANCEL_MILLIS = 100;
+    
+    @Test
+    public void asyncSearch_streamsIterationsThenDeliversOneMove() throws InterruptedException {
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+        RecordingCallback callback = new RecordingCallback();
+        SearchHandle handle = ai.getBestMoveAsync(Perft.position("midgame"), Player.WHITE, callback);
+        
+        assertTrue(callback.delivered.await(10, TimeUnit.SECONDS));
+        ai.shutdown();
+        
+        assertEquals(1, callback.moves.size());
+        assertNotNull(callback.moves.get(0));
+        assertTrue(handle.isDone());
+        assertFalse(handle.isCancelled());
+        assertFalse(callback.progress.isEmpty());
+        for (int i = 0; i < callback.progress.size(); i++) {
+            SearchInfo info = callback.progress.get(i);
+            assertEquals(i + 1, info.getDepth());
+            assertNotNull(info.getMove());
+            assertTrue(info.getNodes() > 0);
+            if (i > 0) {
+                assertTrue(info.getNodes() >= callback.progress.get(i - 1).getNodes());
+            }
+        }
+        assertSame(callback.progress.get(callback.progress.size() - 1), handle.getLatest());
+    }
+    
+    @Test
+    public void cancel_endsSearchQuicklyWithoutDelivering() throws InterruptedException {
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 2);
+        RecordingCallback callback = new RecordingCallback();
+        SearchHandle handle = ai.getBestMoveAsync(new AbaloneGame(), Player.BLACK, callback);
+        assertTrue(callback.firstIteration.await(5, TimeUnit.SECONDS));
+        
+        long start = System.nanoTime();
+        assertTrue(handle.cancel());
+        assertTrue(handle.await(CANCEL_MILLIS));
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        ai.shutdown();
+        
+        assertTrue("cancel took " + millis + " ms", millis < CANCEL_MILLIS);
+        assertTrue(handle.isCancelled());
+        assertTrue(callback.moves.isEmpty());
+        assertEquals(1, callback.delivered.getCount());
+    }
+    
+    @Test
+    public void stop_deliversBestMoveSoFar() throws InterruptedException {
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+        RecordingCallback callback = new RecordingCallback();
+        AbaloneGame game = new AbaloneGame();
+        SearchHandle handle = ai.getBestMoveAsync(game, Player.BLACK, callback);
+        assertTrue(callback.firstIteration.await(5, TimeUnit.SECONDS));
+        
+        handle.stop();
+        assertTrue(callback.delivered.await(CANCEL_MILLIS, TimeUnit.MILLISECONDS));
+        ai.shutdown();
+        
+        assertFalse(handle.cancel());
+        assertEquals(1, callback.moves.size());
+        assertTrue(Perft.legalMoves(game).stream()
+            .anyMatch(move -> PackedMove.of(move) == callback.moves.get(0).packed));
+    }
+    
+    @Test
+    public void cancel_dropsQueuedSearchBeforeItStarts() throws InterruptedException {
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.EASY, 1);
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        AbaloneGame game = new AbaloneGame();
+        ai.getBestMoveAsync(game, Player.BLACK, first);
+        SearchHandle queued = ai.getBestMoveAsync(game, Player.BLACK, second);
+        
+        assertTrue(queued.cancel());
+        assertTrue(first.delivered.await(5, TimeUnit.SECONDS));
+        assertTrue(queued.await(CANCEL_MILLIS));
+        ai.shutdown();
+        
+        assertTrue(second.moves.isEmpty());
+        assertEquals(1, first.moves.size());
+    }
+    
+    @Test
+    public void cancel_waitsForProgressCallbackAndSilencesLaterOnes() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingCallback callback = new RecordingCallback() {
+            @Override
+            public void onSearchProgress(SearchInfo info) {
+                entered.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onSearchProgress(info);
+            }
+        };
+        SearchHandle handle = new SearchHandle(callback);
+        SearchInfo info = new SearchInfo(null, 0, 1, 1, 0);
+        Thread search = new Thread(() -> handle.report(info));
+        search.start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        
+        Thread canceller = new Thread(handle::cancel);
+        canceller.start();
+        canceller.join(CANCEL_MILLIS);
+        assertTrue("cancel returned while a callback was running", canceller.isAlive());
+        release.countDown();
+        canceller.join();
+        search.join();
+        
+        assertTrue(handle.isCancelled());
+        handle.report(info);
+        handle.deliver(null);
+        assertEquals(1, callback.progress.size());
+        assertTrue(callback.moves.isEmpty());
+    }
+    
+    private static class RecordingCallback implements AbaloneAI.MoveCallback {
+        final List<SearchInfo> progress = new CopyOnWriteArrayList<>();
+        final List<AbaloneAI.Move> moves = new CopyOnWriteArrayList<>();
+        final CountDownLatch firstIteration = new CountDownLatch(1);
+        final CountDownLatch delivered = new CountDownLatch(1);
+        
+        @Override
+        public void onMoveCalculated(AbaloneAI.Move move) {
+            moves.add(move);
+            delivered.countDown();
+        }
+        
+        @Override
+        public void onMoveError(String error) {
+            fail(error);
+        }
+        
+        @Override
+        public void onSearchProgress(SearchInfo info) {
+            progress.add(info);
+            firstIteration.countDown();
+        }
+    }
+}
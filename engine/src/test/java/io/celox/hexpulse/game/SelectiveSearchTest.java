@@ -0,0 +1,42 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks null-move pruning and late move reductions against the full-width search.
+ * Their strength at the HARD time budget is measured with {@link SelfPlayMatch},
+ * e.g. {@code hard+threads=1} against {@code hard+threads=1+fullwidth}.
+ */
+public class SelectiveSearchTest {
+    
+    @Test
+    public void fixedDepthSearch_visitsFewerNodesThanFullWidth() {
+        AbaloneGame game = Perft.position("midgame");
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+        AbaloneAI.SearchContext selective = new AbaloneAI.SearchContext(game);
+        ai.searchFixedDepth(selective, game.getCurrentPlayer(), 5);
+        
+        AbaloneAI fullWidthAi = new AbaloneAI(AIDifficulty.HARD, 1);
+        fullWidthAi.setSelectiveSearch(false);
+        AbaloneAI.SearchContext fullWidth = new AbaloneAI.SearchContext(game);
+        fullWidthAi.searchFixedDepth(fullWidth, game.getCurrentPlayer(), 5);
+        ai.shutdown();
+        fullWidthAi.shutdown();
+        
+        assertEquals(5, selective.completedDepth);
+        assertTrue(selective.nodes + " vs " + fullWidth.nodes, selective.nodes < fullWidth.nodes);
+    }
+    
+    @Test
+    public void fixedDepthSearch_stillTakesEjection() {
+        AbaloneGame game = Perft.position("C1 C2 D1 D2 E4 I9", "G7 H8", Player.WHITE, 0, 0);
+        
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD, 1);
+        int move = ai.searchFixedDepth(new AbaloneAI.SearchContext(game), Player.WHITE, 5);
+        ai.shutdown();
+        
+        assertTrue(PackedMove.ejects(move));
+    }
+}
@@ -0,0 +1,44 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the self-play match tool's engine descriptions and openings.
+ */
+public class SelfPlayMatchTest {
+    
+    @Test
+    public void engine_appliesSettings() {
+        AbaloneAI ai = SelfPlayMatch.engine("Hard+threads=1+fullwidth+montecarlo");
+        assertEquals(1, ai.getSearchThreads());
+        ai.shutdown();
+        
+        ai = SelfPlayMatch.engine("medium");
+        assertEquals(AIDifficulty.MEDIUM.getSearchThreads(), ai.getSearchThreads());
+        ai.shutdown();
+    }
+    
+    @Test
+    public void engine_rejectsUnknownSettings() {
+        try {
+            SelfPlayMatch.engine("hard+deeper");
+            fail("Expected an unknown setting to be rejected");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+    
+    @Test
+    public void randomOpening_isReproducible() {
+        AbaloneGame first = SelfPlayMatch.randomOpening(new Random(3), 6);
+        AbaloneGame second = SelfPlayMatch.randomOpening(new Random(3), 6);
+        
+        assertEquals(first.positionHash(), second.positionHash());
+        assertEquals(Player.BLACK, first.getCurrentPlayer());
+        assertNotEquals(new AbaloneGame().positionHash(), first.positionHash());
+    }
+}
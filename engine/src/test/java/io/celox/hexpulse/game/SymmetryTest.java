@@ -0,0 +1,120 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the board symmetries.
+ */
+public class SymmetryTest {
+    private static final String[] POSITIONS = {"start", "belgian", "german", "midgame", "endgame"};
+    
+    @Test
+    public void tables_arePermutationsThatKeepNeighbours() {
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            assertEquals(BitBoard.ALL_CELLS, Symmetry.transform(BitBoard.ALL_CELLS, s));
+            int inverse = Symmetry.inverse(s);
+            for (int i = 0; i < BitBoard.CELL_COUNT; i++) {
+                assertEquals(i, Symmetry.cell(inverse, Symmetry.cell(s, i)));
+                for (int d = 0; d < 6; d++) {
+                    int neighbor = BitBoard.neighbor(i, d);
+                    int expected = neighbor == BitBoard.OFF_BOARD ? BitBoard.OFF_BOARD : Symmetry.cell(s, neighbor);
+                    assertEquals(expected, BitBoard.neighbor(Symmetry.cell(s, i), Symmetry.direction(s, d)));
+                }
+            }
+        }
+        assertEquals(Symmetry.IDENTITY, Symmetry.inverse(Symmetry.IDENTITY));
+        assertEquals(BitBoard.indexOf(0, 0), Symmetry.cell(7, BitBoard.indexOf(0, 0)));
+    }
+    
+    @Test
+    public void transformedPositions_haveTransformedMoves() {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int[] mapped = new int[MoveGenerator.MAX_MOVES];
+        for (AbaloneGame game : positions()) {
+            Player side = game.getCurrentPlayer();
+            int count = MoveGenerator.generate(game.board(), side, moves);
+            for (int s = 0; s < Symmetry.COUNT; s++) {
+                AbaloneGame turned = transform(game, s);
+                assertEquals(count, MoveGenerator.generate(turned.board(), side, mapped));
+                int[] expected = new int[count];
+                for (int i = 0; i < count; i++) {
+                    expected[i] = Symmetry.transformMove(moves[i], s);
+                    assertEquals(moves[i], Symmetry.transformMove(expected[i], Symmetry.inverse(s)));
+                }
+                Arrays.sort(expected);
+                int[] actual = Arrays.copyOf(mapped, count);
+                Arrays.sort(actual);
+                assertArrayEquals("symmetry " + s, expected, actual);
+            }
+        }
+    }
+    
+    @Test
+    public void transformedPositions_haveEqualPerftCounts() {
+        for (String name : POSITIONS) {
+            AbaloneGame game = Perft.position(name);
+            long nodes = Perft.generator(game, 2);
+            for (int s = 1; s < Symmetry.COUNT; s++) {
+                assertEquals(name + " symmetry " + s, nodes, Perft.generator(transform(game, s), 2));
+            }
+        }
+    }
+    
+    @Test
+    public void canonicalHash_isEqualForAllOrientations() {
+        for (AbaloneGame game : positions()) {
+            Player side = game.getCurrentPlayer();
+            long canonical = Symmetry.canonicalHash(game.board(), side);
+            assertEquals(Symmetry.hash(game.board(), side, Symmetry.canonical(game.board())), canonical);
+            for (int s = 0; s < Symmetry.COUNT; s++) {
+                AbaloneGame turned = transform(game, s);
+                assertEquals(canonical, Symmetry.canonicalHash(turned.board(), side));
+                assertEquals(turned.positionHash(), Symmetry.hash(game.board(), side, s));
+            }
+        }
+        AbaloneGame start = new AbaloneGame();
+        assertNotEquals(Symmetry.canonicalHash(start.board(), Player.BLACK),
+            Symmetry.canonicalHash(start.board(), Player.WHITE));
+    }
+    
+    /**
+     * The named positions and positions from random games
+     */
+    private static AbaloneGame[] positions() {
+        AbaloneGame[] positions = new AbaloneGame[POSITIONS.length + 20];
+        for (int i = 0; i < POSITIONS.length; i++) {
+            positions[i] = Perft.position(POSITIONS[i]);
+        }
+        Random random = new Random(24);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int i = POSITIONS.length; i < positions.length; i++) {
+            AbaloneGame game = new AbaloneGame();
+            for (int ply = random.nextInt(40); ply >= 0 && game.checkWinner() == null; ply--) {
+                int count = MoveGenerator.generate(game.board(), game.getCurrentPlayer(), moves);
+                game.make(moves[random.nextInt(count)]);
+            }
+            positions[i] = game;
+        }
+        return positions;
+    }
+    
+    private static AbaloneGame transform(AbaloneGame game, int symmetry) {
+        BitBoard board = new BitBoard();
+        for (int i = 0; i < BitBoard.CELL_COUNT; i++) {
+            Player player = game.board().get(i);
+            if (player != Player.EMPTY) {
+                board.set(Symmetry.cell(symmetry, i), player);
+            }
+        }
+        board.addScore(Player.BLACK, game.board().getScore(Player.BLACK));
+        board.addScore(Player.WHITE, game.board().getScore(Player.WHITE));
+        AbaloneGame turned = new AbaloneGame();
+        turned.loadPosition(board, game.getCurrentPlayer());
+        return turned;
+    }
+}
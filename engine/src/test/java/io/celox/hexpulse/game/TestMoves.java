@@ -0,0 +1,16 @@
+package io.celox.hexpulse.game;
+
+/**
+ * Move checks shared by the search tests
+ */
+final class TestMoves {
+    private TestMoves() {
+    }
+    
+    /**
+     * Whether a move found by the AI is one of the legal moves of a position
+     */
+    static boolean isLegal(AbaloneGame game, AbaloneAI.Move move) {
+        return move != null && Perft.legalMoves(game).stream().anyMatch(legal -> PackedMove.of(legal) == move.packed);
+    }
+}
@@ -0,0 +1,93 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the fixed-size transposition table.
+ */
+public class TranspositionTableTest {
+    
+    @Test
+    public void storeAndProbe_roundTripsAllFields() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = PackedMove.encode(60, 3, 2, 5, 2, true);
+        table.store(42L, move, -12345, 7, TranspositionTable.LOWER);
+        
+        long entry = table.probe(42L);
+        assertNotEquals(0L, entry);
+        assertEquals(move, TranspositionTable.move(entry));
+        assertEquals(-12345, TranspositionTable.score(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        assertEquals(0L, table.probe(43L));
+    }
+    
+    @Test
+    public void size_followsMegabytes() {
+        assertEquals(65536, new TranspositionTable(1).capacity());
+        assertEquals(262144, new TranspositionTable(4).capacity());
+        assertTrue(new TranspositionTable(AIDifficulty.HARD.getTranspositionTableMb()).capacity()
+            > new TranspositionTable(AIDifficulty.MEDIUM.getTranspositionTableMb()).capacity());
+    }
+    
+    @Test
+    public void bucket_keepsDeepEntryAndReplacesShallowSlot() {
+        TranspositionTable table = new TranspositionTable(1);
+        long buckets = table.capacity() / 2;
+        long deep = 5L;
+        long shallow = deep + buckets;
+        long newer = deep + 2 * buckets;
+        
+        table.store(deep, 1, 100, 6, TranspositionTable.EXACT);
+        table.store(shallow, 2, 200, 2, TranspositionTable.EXACT);
+        table.store(newer, 3, 300, 1, TranspositionTable.EXACT);
+        
+        // The deep entry survives in its slot, the always-replace slot took the newest
+        assertEquals(100, TranspositionTable.score(table.probe(deep)));
+        assertEquals(0L, table.probe(shallow));
+        assertEquals(300, TranspositionTable.score(table.probe(newer)));
+        assertEquals(1, table.getOverwrites());
+        
+        // A new search makes the old deep entry replaceable; it is demoted, not lost
+        table.newSearch();
+        table.store(shallow, 2, 200, 1, TranspositionTable.EXACT);
+        assertEquals(200, TranspositionTable.score(table.probe(shallow)));
+        assertEquals(100, TranspositionTable.score(table.probe(deep)));
+        assertEquals(0L, table.probe(newer));
+    }
+    
+    @Test
+    public void stats_countHitsAndMisses() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(1L, 0, 0, 1, TranspositionTable.UPPER);
+        table.probe(1L);
+        table.probe(2L);
+        table.probe(3L);
+        assertEquals(3, table.getProbes());
+        assertEquals(1, table.getHits());
+        assertEquals(2, table.getMisses());
+        assertEquals(1.0 / 3, table.getHitRate(), 1e-9);
+        
+        table.clear();
+        assertEquals(0, table.getProbes());
+        assertEquals(0L, table.probe(1L));
+    }
+    
+    @Test
+    public void search_fillsTableAndReturnsLegalMove() {
+        AbaloneAI ai = new AbaloneAI(AIDifficulty.HARD);
+        AbaloneGame game = new AbaloneGame();
+        AbaloneAI.Move move = ai.getBestMove(game, Player.BLACK);
+        ai.shutdown();
+        
+        assertNotNull(move);
+        assertTrue(ai.getTranspositionTable().getStores() > 0);
+        game.clearSelection();
+        for (Hex marble : move.selectedMarbles) {
+            assertTrue(game.selectMarble(marble));
+        }
+        assertTrue(game.makeMove(move.target));
+    }
+}
@@ -0,0 +1,113 @@
+package io.celox.hexpulse.game;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the incremental Zobrist position hash.
+ */
+public class ZobristTest {
+    
+    @Test
+    public void incrementalHash_matchesFromScratchAlongRandomGames() {
+        Random random = new Random(23);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        
+        for (int game = 0; game < 20; game++) {
+            AbaloneGame position = new AbaloneGame();
+            assertEquals(Zobrist.hash(position.board(), Player.BLACK), position.positionHash());
+            
+            for (int ply = 0; ply < 150 && position.checkWinner() == null; ply++) {
+                int count = MoveGenerator.generate(position.board(), position.getCurrentPlayer(), moves);
+                long before = position.positionHash();
+                for (int i = 0; i < count; i++) {
+                    position.make(moves[i]);
+                    assertEquals(Zobrist.hash(position.board(), position.getCurrentPlayer()), position.positionHash());
+                    position.unmake(moves[i]);
+                    assertEquals(before, position.positionHash());
+                }
+                position.make(moves[random.nextInt(count)]);
+            }
+        }
+    }
+    
+    @Test
+    public void uiMoveAndUndo_keepHashInStep() {
+        AbaloneGame game = new AbaloneGame();
+        long start = game.positionHash();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        MoveGenerator.generate(game.board(), Player.BLACK, moves);
+        
+        for (Hex marble : PackedMove.marbles(moves[0])) {
+            assertTrue(game.selectMarble(marble));
+        }
+        assertTrue(game.makeMove(PackedMove.target(moves[0])));
+        assertEquals(Zobrist.hash(game.board(), Player.WHITE), game.positionHash());
+        
+        assertTrue(game.undoLastMove());
+        assertEquals(start, game.positionHash());
+    }
+    
+    @Test
+    public void transposedMoveOrders_hashEqually() {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        AbaloneGame start = new AbaloneGame();
+        int count = MoveGenerator.generate(start.board(), Player.BLACK, moves);
+        int blackA = moves[0];
+        int blackB = independentSingle(blackA, moves, count);
+        count = MoveGenerator.generate(start.board(), Player.WHITE, moves);
+        int whiteA = moves[0];
+        int whiteB = independentSingle(whiteA, moves, count);
+        
+        AbaloneGame first = new AbaloneGame(start);
+        first.make(blackA);
+        first.make(whiteA);
+        first.make(blackB);
+        first.make(whiteB);
+        
+        AbaloneGame second = new AbaloneGame(start);
+        second.make(blackB);
+        second.make(whiteB);
+        second.make(blackA);
+        second.make(whiteA);
+        
+        assertEquals(first.board(), second.board());
+        assertEquals(first.positionHash(), second.positionHash());
+    }
+    
+    @Test
+    public void sideToMoveAndScore_changeHash() {
+        BitBoard board = new BitBoard();
+        board.set(0, Player.BLACK);
+        long blackToMove = Zobrist.hash(board, Player.BLACK);
+        assertNotEquals(blackToMove, Zobrist.hash(board, Player.WHITE));
+        
+        board.addScore(Player.BLACK, 1);
+        assertNotEquals(blackToMove, board.hash());
+        board.addScore(Player.BLACK, -1);
+        assertEquals(blackToMove, board.hash());
+        
+        board.set(0, Player.EMPTY);
+        assertEquals(0L, board.hash());
+    }
+    
+    /**
+     * A single-marble move that touches none of the cells of another single-marble move
+     */
+    private static int independentSingle(int move, int[] moves, int count) {
+        int from = PackedMove.origin(move);
+        int to = BitBoard.indexOf(PackedMove.target(move));
+        for (int i = 0; i < count; i++) {
+            int other = moves[i];
+            int otherTo = BitBoard.indexOf(PackedMove.target(other));
+            if (PackedMove.length(other) == 1 && PackedMove.origin(other) != from
+                    && PackedMove.origin(other) != to && otherTo != from && otherTo != to) {
+                return other;
+            }
+        }
+        throw new AssertionError("no independent move");
+    }
+}
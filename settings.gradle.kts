@@ -21,4 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "HexPulse"
 include(":app")
+include(":engine")
  
\ No newline at end of file